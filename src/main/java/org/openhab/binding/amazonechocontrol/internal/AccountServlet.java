@@ -33,7 +33,6 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang.StringUtils;
-import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -44,7 +43,6 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDevices.Device;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMusicProvider;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonNotificationSound;
-import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists.PlayList;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
@@ -292,13 +290,17 @@ public class AccountServlet extends HttpServlet {
                     handleDevices(resp, connection);
                     return;
                 }
+                if (baseUrl.equals("/statistics") || baseUrl.equals("/statistics/")) {
+                    handleStatistics(resp, connection);
+                    return;
+                }
                 if (baseUrl.equals("/changeDomain") || baseUrl.equals("/changeDomain/")) {
                     handleChangeDomain(resp, connection);
                     return;
                 }
                 if (baseUrl.equals("/ids") || baseUrl.equals("/ids/")) {
                     String serialNumber = getQueryMap(queryString).get("serialNumber");
-                    Device device = account.findDeviceJson(serialNumber);
+                    Device device = account.getSnapshot().findDevice(serialNumber);
                     if (device != null) {
                         Thing thing = account.findThingBySerialNumber(device.serialNumber);
                         if (thing != null) {
@@ -362,6 +364,20 @@ public class AccountServlet extends HttpServlet {
         createPageEndAndSent(resp, html);
     }
 
+    private void handleStatistics(HttpServletResponse resp, Connection connection) {
+        StringBuilder html = createPageStart("Statistics");
+        html.append("<table><tr><th align='left'>Counter</th><th align='left'>Value</th></tr>");
+        for (Map.Entry<String, Long> entry : account.getStatistics(connection).entrySet()) {
+            html.append("<tr><td>");
+            html.append(StringEscapeUtils.escapeHtml(entry.getKey()));
+            html.append("</td><td>");
+            html.append(entry.getValue());
+            html.append("</td></tr>");
+        }
+        html.append("</table>");
+        createPageEndAndSent(resp, html);
+    }
+
     private void handleDefaultPageResult(HttpServletResponse resp, String message, Connection connection)
             throws IOException {
         StringBuilder html = createPageStart("");
@@ -384,6 +400,10 @@ public class AccountServlet extends HttpServlet {
         html.append(" <a href='");
         html.append(servletUrl);
         html.append("/changeDomain'>Change</a>");
+        // statistics
+        html.append("<br><a href='");
+        html.append(servletUrl);
+        html.append("/statistics'>Statistics</a>");
 
         // paper ui link
         html.append("<br><a href='/paperui/index.html#/configuration/things/view/" + BINDING_ID + ":"
@@ -394,7 +414,7 @@ public class AccountServlet extends HttpServlet {
         // device list
         html.append(
                 "<table><tr><th align='left'>Device</th><th align='left'>Serial Number</th><th align='left'>State</th><th align='left'>Thing</th><th align='left'>Type</th><th align='left'>Family</th></tr>");
-        for (Device device : this.account.getLastKnownDevices()) {
+        for (Device device : this.account.getSnapshot().getDevices()) {
 
             html.append("<tr><td>");
             html.append(StringEscapeUtils.escapeHtml(nullReplacement(device.accountName)));
@@ -503,7 +523,7 @@ public class AccountServlet extends HttpServlet {
 
     private void renderPlayAlarmSoundChannel(Connection connection, Device device, StringBuilder html) {
         html.append("<h2>" + StringEscapeUtils.escapeHtml("Channel " + CHANNEL_PLAY_ALARM_SOUND) + "</h2>");
-        JsonNotificationSound[] notificationSounds = null;
+        List<JsonNotificationSound> notificationSounds = null;
         String errorMessage = "No notifications sounds found";
         try {
             notificationSounds = connection.getNotificationSounds(device);
@@ -533,7 +553,7 @@ public class AccountServlet extends HttpServlet {
     private void renderAmazonMusicPlaylistIdChannel(Connection connection, Device device, StringBuilder html) {
         html.append("<h2>" + StringEscapeUtils.escapeHtml("Channel " + CHANNEL_AMAZON_MUSIC_PLAY_LIST_ID) + "</h2>");
 
-        JsonPlaylists playLists = null;
+        List<PlayList> playLists = null;
         String errorMessage = "No playlists found";
         try {
             playLists = connection.getPlaylists(device);
@@ -542,22 +562,16 @@ public class AccountServlet extends HttpServlet {
         }
 
         if (playLists != null) {
-            Map<@NonNull String, @Nullable PlayList @Nullable []> playlistMap = playLists.playlists;
-            if (playlistMap != null && !playlistMap.isEmpty()) {
+            if (!playLists.isEmpty()) {
                 html.append("<table><tr><th align='left'>Name</th><th align='left'>Value</th></tr>");
 
-                for (PlayList[] innerLists : playlistMap.values()) {
-                    {
-                        if (innerLists != null && innerLists.length > 0) {
-                            PlayList playList = innerLists[0];
-                            if (playList.playlistId != null && playList.title != null) {
-                                html.append("<tr><td>");
-                                html.append(StringEscapeUtils.escapeHtml(nullReplacement(playList.title)));
-                                html.append("</td><td>");
-                                html.append(StringEscapeUtils.escapeHtml(nullReplacement(playList.playlistId)));
-                                html.append("</td></tr>");
-                            }
-                        }
+                for (PlayList playList : playLists) {
+                    if (playList.playlistId != null && playList.title != null) {
+                        html.append("<tr><td>");
+                        html.append(StringEscapeUtils.escapeHtml(nullReplacement(playList.title)));
+                        html.append("</td><td>");
+                        html.append(StringEscapeUtils.escapeHtml(nullReplacement(playList.playlistId)));
+                        html.append("</td></tr>");
                     }
                 }
                 html.append("</table>");
@@ -607,6 +621,7 @@ public class AccountServlet extends HttpServlet {
             if (urlConnection.getResponseCode() == 302) {
                 {
                     String location = urlConnection.getHeaderField("location");
+                    connection.releaseConnection(urlConnection);
                     if (location.contains("/ap/maplanding")) {
 
                         try {
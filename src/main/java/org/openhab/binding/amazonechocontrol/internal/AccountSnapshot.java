@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonAscendingAlarm.AscendingAlarmModel;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.BluetoothState;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDeviceNotificationState.DeviceNotificationState;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDevices.Device;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonWakeWords.WakeWord;
+
+/**
+ * The {@link AccountSnapshot} is an immutable view of the devices of an account and their bluetooth, notification,
+ * ascending alarm and wake word state, indexed by serial number. The account handler builds a new snapshot for each
+ * refresh and publishes it, so the handlers, the state description provider and the servlet can read it without
+ * locking. The version is incremented with each published snapshot.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public final class AccountSnapshot {
+
+    public static final AccountSnapshot EMPTY = new AccountSnapshot(0, Collections.emptyMap(), Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final long version;
+    private final Map<String, Device> devices;
+    private final Map<String, BluetoothState> bluetoothStates;
+    private final Map<String, DeviceNotificationState> notificationStates;
+    private final Map<String, AscendingAlarmModel> ascendingAlarms;
+    private final Map<String, String> wakeWords;
+
+    private AccountSnapshot(long version, Map<String, Device> devices, Map<String, BluetoothState> bluetoothStates,
+            Map<String, DeviceNotificationState> notificationStates, Map<String, AscendingAlarmModel> ascendingAlarms,
+            Map<String, String> wakeWords) {
+        this.version = version;
+        this.devices = devices;
+        this.bluetoothStates = bluetoothStates;
+        this.notificationStates = notificationStates;
+        this.ascendingAlarms = ascendingAlarms;
+        this.wakeWords = wakeWords;
+    }
+
+    /**
+     * Creates the next snapshot with a new device list and wake words, the other states are taken over
+     */
+    public AccountSnapshot withDevices(List<Device> deviceList, @Nullable WakeWord @Nullable [] wakeWordList) {
+        Map<String, Device> newDevices = new LinkedHashMap<>();
+        for (Device device : deviceList) {
+            String serialNumber = device.serialNumber;
+            if (serialNumber != null) {
+                newDevices.put(serialNumber, device);
+            }
+        }
+        Map<String, String> newWakeWords = new HashMap<>();
+        if (wakeWordList != null) {
+            for (WakeWord wakeWord : wakeWordList) {
+                if (wakeWord != null && wakeWord.deviceSerialNumber != null && wakeWord.wakeWord != null) {
+                    newWakeWords.putIfAbsent(wakeWord.deviceSerialNumber, wakeWord.wakeWord);
+                }
+            }
+        }
+        // the wake words can not be fetched in all regions, keep the last known ones
+        for (Map.Entry<String, String> entry : wakeWords.entrySet()) {
+            newWakeWords.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return new AccountSnapshot(version + 1, Collections.unmodifiableMap(newDevices), bluetoothStates,
+                notificationStates, ascendingAlarms, Collections.unmodifiableMap(newWakeWords));
+    }
+
+    /**
+     * Creates the next snapshot with new device states, the devices and wake words are taken over. States which
+     * could not be fetched (null) are empty in the new snapshot.
+     */
+    public AccountSnapshot withStates(@Nullable JsonBluetoothStates bluetoothStateList,
+            @Nullable DeviceNotificationState @Nullable [] notificationStateList,
+            @Nullable AscendingAlarmModel @Nullable [] ascendingAlarmList) {
+        Map<String, DeviceNotificationState> newNotificationStates = new HashMap<>();
+        if (notificationStateList != null) {
+            for (DeviceNotificationState state : notificationStateList) {
+                if (state != null && state.deviceSerialNumber != null) {
+                    newNotificationStates.putIfAbsent(state.deviceSerialNumber, state);
+                }
+            }
+        }
+        Map<String, AscendingAlarmModel> newAscendingAlarms = new HashMap<>();
+        if (ascendingAlarmList != null) {
+            for (AscendingAlarmModel model : ascendingAlarmList) {
+                if (model != null && model.deviceSerialNumber != null) {
+                    newAscendingAlarms.putIfAbsent(model.deviceSerialNumber, model);
+                }
+            }
+        }
+        return new AccountSnapshot(version + 1, devices, indexBluetoothStates(bluetoothStateList),
+                Collections.unmodifiableMap(newNotificationStates), Collections.unmodifiableMap(newAscendingAlarms),
+                wakeWords);
+    }
+
+    /**
+     * Creates the next snapshot with new bluetooth states, all other states are taken over
+     */
+    public AccountSnapshot withBluetoothStates(@Nullable JsonBluetoothStates bluetoothStateList) {
+        return new AccountSnapshot(version + 1, devices, indexBluetoothStates(bluetoothStateList), notificationStates,
+                ascendingAlarms, wakeWords);
+    }
+
+    private static Map<String, BluetoothState> indexBluetoothStates(@Nullable JsonBluetoothStates bluetoothStateList) {
+        Map<String, BluetoothState> newBluetoothStates = new HashMap<>();
+        if (bluetoothStateList != null && bluetoothStateList.bluetoothStates != null) {
+            for (BluetoothState state : bluetoothStateList.bluetoothStates) {
+                if (state != null && state.deviceSerialNumber != null) {
+                    newBluetoothStates.putIfAbsent(state.deviceSerialNumber, state);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(newBluetoothStates);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Device> getDevices() {
+        return Collections.unmodifiableList(new ArrayList<>(devices.values()));
+    }
+
+    public @Nullable Device findDevice(@Nullable String serialNumber) {
+        return serialNumber != null ? devices.get(serialNumber) : null;
+    }
+
+    /**
+     * Finds a device by serial number or, if no serial number matches, by name (both ignoring the case)
+     */
+    public @Nullable Device findDeviceBySerialOrName(@Nullable String serialOrName) {
+        if (StringUtils.isEmpty(serialOrName)) {
+            return null;
+        }
+        Device device = devices.get(serialOrName);
+        if (device != null) {
+            return device;
+        }
+        for (Device current : devices.values()) {
+            if (StringUtils.equalsIgnoreCase(current.serialNumber, serialOrName)) {
+                return current;
+            }
+        }
+        for (Device current : devices.values()) {
+            if (StringUtils.equalsIgnoreCase(current.accountName, serialOrName)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    public @Nullable BluetoothState findBluetoothState(@Nullable String serialNumber) {
+        return serialNumber != null ? bluetoothStates.get(serialNumber) : null;
+    }
+
+    public @Nullable DeviceNotificationState findNotificationState(@Nullable String serialNumber) {
+        return serialNumber != null ? notificationStates.get(serialNumber) : null;
+    }
+
+    public @Nullable AscendingAlarmModel findAscendingAlarm(@Nullable String serialNumber) {
+        return serialNumber != null ? ascendingAlarms.get(serialNumber) : null;
+    }
+
+    public @Nullable String findWakeWord(@Nullable String serialNumber) {
+        return serialNumber != null ? wakeWords.get(serialNumber) : null;
+    }
+}
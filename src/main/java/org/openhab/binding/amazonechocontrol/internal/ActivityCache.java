@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities.Activity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ActivityCache} resolves the activities of push events. Requests which arrive within the batch window
+ * are resolved with one request of the activity list, the fetched activities are kept for a short time, so further
+ * push events for the same activity (e.g. from several echos which heard the same utterance) are resolved without
+ * request.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ActivityCache {
+
+    @FunctionalInterface
+    public interface IActivitySource {
+        @Nullable
+        Activity @Nullable [] getActivities(int number, @Nullable Long startTime);
+    }
+
+    private static class CachedActivity {
+        final Activity activity;
+        final long expires;
+
+        CachedActivity(Activity activity, long expires) {
+            this.activity = activity;
+            this.expires = expires;
+        }
+    }
+
+    private static class PendingRequest {
+        final @Nullable Long timestamp;
+        final List<Consumer<Activity>> listeners = new ArrayList<>();
+
+        PendingRequest(@Nullable Long timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static final int PAGE_SIZE = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(ActivityCache.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final IActivitySource source;
+    private final long window;
+    private final long timeToLive;
+
+    private final Map<String, CachedActivity> activities = new LinkedHashMap<>();
+    private final Map<String, PendingRequest> pendingRequests = new LinkedHashMap<>();
+    private boolean batchScheduled;
+
+    private final AtomicLong executedRequests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * @param window the time in milliseconds in which requests are collected for one request of the activity list
+     * @param timeToLive the time in milliseconds the fetched activities are kept
+     */
+    public ActivityCache(ScheduledExecutorService scheduler, IActivitySource source, long window, long timeToLive) {
+        this.scheduler = scheduler;
+        this.source = source;
+        this.window = window;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Resolves the activity with the id ("registeredUserId#entryId") of a push event. The listener is called with the
+     * activity, on the calling thread if it is cached or later on the scheduler. It is not called, if the activity
+     * is not found.
+     */
+    public void request(String id, @Nullable Long timestamp, Consumer<Activity> listener) {
+        Activity activity;
+        synchronized (this) {
+            activity = findCached(id);
+            if (activity == null) {
+                PendingRequest pendingRequest = pendingRequests.get(id);
+                if (pendingRequest == null) {
+                    pendingRequest = new PendingRequest(timestamp);
+                    pendingRequests.put(id, pendingRequest);
+                }
+                pendingRequest.listeners.add(listener);
+                if (!batchScheduled) {
+                    try {
+                        scheduler.schedule(this::executeBatch, window, TimeUnit.MILLISECONDS);
+                        batchScheduled = true;
+                    } catch (RejectedExecutionException e) {
+                        pendingRequests.clear();
+                    }
+                }
+                return;
+            }
+        }
+        hits.incrementAndGet();
+        listener.accept(activity);
+    }
+
+    private @Nullable Activity findCached(String id) {
+        long now = System.currentTimeMillis();
+        Iterator<CachedActivity> iterator = activities.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expires > now) {
+                break;
+            }
+            // in insertion order, so the oldest entries expire first
+            iterator.remove();
+        }
+        CachedActivity cachedActivity = activities.get(id);
+        return cachedActivity != null ? cachedActivity.activity : null;
+    }
+
+    private void executeBatch() {
+        Map<String, PendingRequest> batch;
+        synchronized (this) {
+            batch = new LinkedHashMap<>(pendingRequests);
+            pendingRequests.clear();
+            batchScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // the newest push event as start time, the page is large enough for all events of the batch
+            Long startTime = null;
+            for (PendingRequest pendingRequest : batch.values()) {
+                Long timestamp = pendingRequest.timestamp;
+                if (timestamp != null && (startTime == null || timestamp > startTime)) {
+                    startTime = timestamp;
+                }
+            }
+            fetch(Math.max(PAGE_SIZE, 2 * batch.size()), startTime);
+            for (Map.Entry<String, PendingRequest> entry : batch.entrySet()) {
+                Activity activity;
+                synchronized (this) {
+                    activity = findCached(entry.getKey());
+                }
+                if (activity == null && batch.size() > 1) {
+                    // not in the page of the batch, try the page of the own event
+                    fetch(PAGE_SIZE, entry.getValue().timestamp);
+                    synchronized (this) {
+                        activity = findCached(entry.getKey());
+                    }
+                }
+                if (activity != null) {
+                    for (Consumer<Activity> listener : entry.getValue().listeners) {
+                        listener.accept(activity);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Resolving activities failed {}", e);
+        }
+    }
+
+    private void fetch(int number, @Nullable Long startTime) {
+        executedRequests.incrementAndGet();
+        @Nullable
+        Activity @Nullable [] page = source.getActivities(number, startTime);
+        if (page == null) {
+            return;
+        }
+        long expires = System.currentTimeMillis() + timeToLive;
+        synchronized (this) {
+            for (Activity activity : page) {
+                String id = activity != null ? activity.id : null;
+                if (activity != null && id != null) {
+                    // re-insert, so the order stays the order of expiry
+                    activities.remove(id);
+                    activities.put(id, new CachedActivity(activity, expires));
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the cached activities and the pending requests
+     */
+    public synchronized void clear() {
+        activities.clear();
+        pendingRequests.clear();
+    }
+
+    /**
+     * Adds the request and hit counters to the statistics
+     */
+    public void appendStatistics(Map<String, Long> statistics) {
+        statistics.put("Activity requests", executedRequests.get());
+        statistics.put("Activity cache hits", hits.get());
+    }
+}
@@ -110,6 +110,15 @@ public class AmazonEchoControlBindingConstants {
     public static final String DEVICE_PROPERTY_APPLIANCE_ID = "applianceId";
     public static final String DEVICE_PROPERTY_LIGHT_ENTITY_ID = "entityId";
     public static final String DEVICE_PROPERTY_LIGHT_SUBDEVICE = "subDevice";
+    public static final String DEVICE_PROPERTY_POLLING_INTERVAL = "pollingInterval";
+
+    // List of all account configuration parameters
+    public static final String ACCOUNT_CONFIG_POLLING_INTERVAL_SMART_HOME_MIN = "pollingIntervalSmartHomeMin";
+    public static final String ACCOUNT_CONFIG_POLLING_INTERVAL_SMART_HOME_MAX = "pollingIntervalSmartHomeMax";
+    public static final String ACCOUNT_CONFIG_POLLING_INTERVAL_ECHO_MIN = "pollingIntervalEchoMin";
+    public static final String ACCOUNT_CONFIG_POLLING_INTERVAL_ECHO_MAX = "pollingIntervalEchoMax";
+    public static final String ACCOUNT_CONFIG_REFRESH_PARALLELISM = "refreshParallelism";
+    public static final String ACCOUNT_CONFIG_PUSH_EVENT_WINDOW = "pushEventWindow";
 
     // Other
     public static final String FLASH_BRIEFING_COMMAND_PREFIX = "FlashBriefing.";
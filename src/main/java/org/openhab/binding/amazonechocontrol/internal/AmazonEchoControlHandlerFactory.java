@@ -20,6 +20,8 @@ import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
@@ -43,6 +45,8 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.http.HttpService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link AmazonEchoControlHandlerFactory} is responsible for creating things and thing
@@ -54,6 +58,8 @@ import org.osgi.service.http.HttpService;
 @NonNullByDefault
 public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
 
+    private final Logger logger = LoggerFactory.getLogger(AmazonEchoControlHandlerFactory.class);
+
     private final Map<ThingUID, @Nullable ServiceRegistration<?>> discoveryServiceRegistrations = new HashMap<>();
 
     @Nullable
@@ -62,6 +68,8 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
     StorageService storageService;
     @Nullable
     BindingServlet bindingServlet;
+    // the web socket connections of all accounts share the thread pool, selector and ssl context of this client
+    private final WebSocketClient webSocketClient = new WebSocketClient(new SslContextFactory());
 
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -75,6 +83,11 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
         if (bindingServlet == null && httpService != null) {
             bindingServlet = new BindingServlet(httpService);
         }
+        try {
+            webSocketClient.start();
+        } catch (Exception e) {
+            logger.warn("Web socket client start failed: {}", e);
+        }
     }
 
     @Override
@@ -84,6 +97,11 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
         if (bindingServlet != null) {
             bindingServlet.dispose();
         }
+        try {
+            webSocketClient.stop();
+        } catch (Exception e) {
+            logger.warn("Web socket client stop failed: {}", e);
+        }
         super.deactivate(componentContext);
     }
 
@@ -103,7 +121,7 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
         if (thingTypeUID.equals(THING_TYPE_ACCOUNT)) {
             Storage<String> storage = storageService.getStorage(thing.getUID().toString(),
                     String.class.getClassLoader());
-            AccountHandler bridgeHandler = new AccountHandler((Bridge) thing, httpService, storage);
+            AccountHandler bridgeHandler = new AccountHandler((Bridge) thing, httpService, storage, webSocketClient);
             registerDiscoveryService(bridgeHandler);
             BindingServlet bindingServlet = this.bindingServlet;
             if (bindingServlet != null) {
@@ -16,13 +16,14 @@ import static org.openhab.binding.amazonechocontrol.internal.AmazonEchoControlBi
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.lang.reflect.Type;
 import java.net.CookieManager;
 import java.net.CookieStore;
 import java.net.HttpCookie;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
@@ -31,17 +32,19 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
-import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
@@ -75,6 +78,10 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonEnabledFeeds;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonExchangeTokenResponse;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonExchangeTokenResponse.Cookie;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonFeed;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaSessions;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaSessions.Endpoint;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaSessions.EndpointId;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaSessions.MediaSession;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaState;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMusicProvider;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonNotificationRequest;
@@ -84,7 +91,9 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonNotificationSoun
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaySearchPhraseOperationPayload;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayValidationResult;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists.PlayList;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonRegisterAppRequest;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonRegisterAppResponse;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonRegisterAppResponse.Bearer;
@@ -97,12 +106,14 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonRenewTokenRespon
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeDeviceAlias;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeDevices;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeDevices.SmartHomeDevice;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeGroupIdentifiers.SmartHomeGroupIdentifier;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeGroups.SmartHomeGroup;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonStartRoutineRequest;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonUsersMeResponse;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonWakeWords;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonWakeWords.WakeWord;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonWebSiteCookie;
+import org.openhab.binding.amazonechocontrol.internal.smarthome.ApplianceStateSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,9 +121,11 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The {@link Connection} is responsible for the connection to the amazon server and
@@ -123,11 +136,24 @@ import com.google.gson.JsonSyntaxException;
 @NonNullByDefault
 public class Connection {
     private static final long expiresIn = 432000; // five days
+    private static final int MAX_APPLIANCE_STATES_PER_REQUEST = 50;
     private static final Pattern charsetPattern = Pattern.compile("(?i)\\bcharset=\\s*\"?([^\\s;\"]*)");
 
+    // cached endpoints
+    public static final String CACHE_WAKE_WORDS = "wakeWords";
+    public static final String CACHE_BLUETOOTH_STATES = "bluetoothStates";
+    public static final String CACHE_MUSIC_PROVIDERS = "musicProviders";
+    public static final String CACHE_NOTIFICATION_SOUNDS = "notificationSounds";
+    public static final String CACHE_PLAYLISTS = "playlists";
+    public static final String CACHE_ROUTINES = "routines";
+    public static final String CACHE_DEVICE_NOTIFICATION_STATES = "deviceNotificationStates";
+    public static final String CACHE_ASCENDING_ALARM = "ascendingAlarm";
+    public static final String CACHE_ENABLED_FEEDS = "enabledFeeds";
+
     private final Logger logger = LoggerFactory.getLogger(Connection.class);
 
     private final CookieManager cookieManager = new CookieManager();
+    private final Object renewLock = new Object();
     private String amazonSite = "amazon.com";
     private String alexaServer = "https://alexa.amazon.com";
     private final String userAgent;
@@ -144,8 +170,17 @@ public class Connection {
 
     private final Gson gson = new Gson();
     private final Gson gsonWithNullSerialization;
+    private final IHttpTransport transport;
+    private final ResponseCache responseCache = new ResponseCache();
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private final RequestCoalescer catalogCoalescer = new RequestCoalescer();
 
     public Connection(@Nullable Connection oldConnection) {
+        this(oldConnection, oldConnection != null ? oldConnection.transport : KeepAliveHttpTransport.getDefault());
+    }
+
+    public Connection(@Nullable Connection oldConnection, IHttpTransport transport) {
+        this.transport = transport;
         String frc = null;
         String serial = null;
         String deviceId = null;
@@ -191,6 +226,20 @@ public class Connection {
 
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonWithNullSerialization = gsonBuilder.create();
+
+        // time to live in milliseconds and maximum number of entries (one entry per device for device specific
+        // endpoints)
+        responseCache.addEndpoint(CACHE_WAKE_WORDS, 600000, 1);
+        responseCache.addEndpoint(CACHE_BLUETOOTH_STATES, 30000, 1);
+        responseCache.addEndpoint(CACHE_MUSIC_PROVIDERS, 1800000, 1);
+        // catalogs: the sounds are the same for all devices with the same type and software, the playlists for all
+        // devices of the account
+        responseCache.addEndpoint(CACHE_NOTIFICATION_SOUNDS, 86400000, 32);
+        responseCache.addEndpoint(CACHE_PLAYLISTS, 1800000, 4);
+        responseCache.addEndpoint(CACHE_ROUTINES, 300000, 1);
+        responseCache.addEndpoint(CACHE_DEVICE_NOTIFICATION_STATES, 300000, 1);
+        responseCache.addEndpoint(CACHE_ASCENDING_ALARM, 300000, 1);
+        responseCache.addEndpoint(CACHE_ENABLED_FEEDS, 300000, 1);
     }
 
     private void setAmazonSite(@Nullable String amazonSite) {
@@ -415,34 +464,44 @@ public class Connection {
         return loginTime;
     }
 
-    public String convertStream(HttpsURLConnection connection) throws IOException {
-        InputStream input = connection.getInputStream();
-        if (input == null) {
-            return "";
-        }
-
-        InputStream readerStream;
+    private InputStream getResponseStream(HttpsURLConnection connection, InputStream input) throws IOException {
         if (StringUtils.equalsIgnoreCase(connection.getContentEncoding(), "gzip")) {
-            readerStream = new GZIPInputStream(connection.getInputStream());
-        } else {
-            readerStream = input;
+            return new GZIPInputStream(input);
         }
+        return input;
+    }
+
+    private @Nullable String getResponseCharset(HttpsURLConnection connection) {
         String contentType = connection.getContentType();
-        String charSet = null;
         if (contentType != null) {
             Matcher m = charsetPattern.matcher(contentType);
             if (m.find()) {
-                charSet = m.group(1).trim().toUpperCase();
+                return m.group(1).trim().toUpperCase();
             }
         }
+        return null;
+    }
+
+    public String convertStream(HttpsURLConnection connection) throws IOException {
+        InputStream input = connection.getInputStream();
+        if (input == null) {
+            return "";
+        }
+
+        InputStream readerStream = getResponseStream(connection, input);
+        String charSet = getResponseCharset(connection);
 
         Scanner inputScanner = StringUtils.isEmpty(charSet) ? new Scanner(readerStream, StandardCharsets.UTF_8.name())
                 : new Scanner(readerStream, charSet);
         Scanner scannerWithoutDelimiter = inputScanner.useDelimiter("\\A");
-        String result = scannerWithoutDelimiter.hasNext() ? scannerWithoutDelimiter.next() : null;
-        inputScanner.close();
-        scannerWithoutDelimiter.close();
-        input.close();
+        String result;
+        try {
+            result = scannerWithoutDelimiter.hasNext() ? scannerWithoutDelimiter.next() : null;
+        } finally {
+            inputScanner.close();
+            scannerWithoutDelimiter.close();
+            input.close();
+        }
         if (result == null) {
             result = "";
         }
@@ -455,8 +514,158 @@ public class Connection {
 
     public String makeRequestAndReturnString(String verb, String url, @Nullable String postData, boolean json,
             @Nullable Map<String, String> customHeaders) throws IOException, URISyntaxException {
+        if ("GET".equals(verb)) {
+            // concurrent identical requests share one call to the server
+            return requestCoalescer.execute(getCoalescerKey("string", url, customHeaders),
+                    () -> executeRequestAndReturnString(verb, url, postData, json, customHeaders));
+        }
+        return executeRequestAndReturnString(verb, url, postData, json, customHeaders);
+    }
+
+    private String executeRequestAndReturnString(String verb, String url, @Nullable String postData, boolean json,
+            @Nullable Map<String, String> customHeaders) throws IOException, URISyntaxException {
+        HttpsURLConnection connection = makeRequest(verb, url, postData, json, true, customHeaders);
+        try {
+            return convertStream(connection);
+        } catch (IOException e) {
+            transport.discardConnection(connection);
+            throw e;
+        }
+    }
+
+    public <T> T requestAndParse(String url, Type type) throws IOException, URISyntaxException {
+        return requestAndParse("GET", url, null, false, null, type);
+    }
+
+    /**
+     * Makes the request and decodes the json response directly from the response stream, without creating an
+     * intermediate string of the whole response. The result of a GET request may be shared with concurrent callers of
+     * the same request and must not be changed.
+     */
+    public <T> T requestAndParse(String verb, String url, @Nullable String postData, boolean json,
+            @Nullable Map<String, String> customHeaders, Type type) throws IOException, URISyntaxException {
+        if ("GET".equals(verb)) {
+            // concurrent identical requests share one call to the server and the parsed result
+            return requestCoalescer.execute(getCoalescerKey(type.getTypeName(), url, customHeaders),
+                    () -> executeRequestAndParse(verb, url, postData, json, customHeaders,
+                            reader -> gson.fromJson(reader, type)));
+        }
+        return executeRequestAndParse(verb, url, postData, json, customHeaders, reader -> gson.fromJson(reader, type));
+    }
+
+    /**
+     * Makes a GET request and decodes the response into a json tree. String values which contain embedded json
+     * documents are decoded into the tree while reading the response. The tree may be shared with concurrent callers
+     * and must not be changed.
+     */
+    private JsonElement requestAndDecodeNestedJson(String url) throws IOException, URISyntaxException {
+        return requestCoalescer.execute(getCoalescerKey(NestedJsonDecoder.class.getName(), url, null),
+                () -> executeRequestAndParse("GET", url, null, false, null, NestedJsonDecoder::decode));
+    }
+
+    private <T> T executeRequestAndParse(String verb, String url, @Nullable String postData, boolean json,
+            @Nullable Map<String, String> customHeaders, Function<JsonReader, T> decoder)
+            throws IOException, URISyntaxException {
         HttpsURLConnection connection = makeRequest(verb, url, postData, json, true, customHeaders);
-        return convertStream(connection);
+        InputStream input = connection.getInputStream();
+        String charSet = getResponseCharset(connection);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(getResponseStream(connection, input),
+                StringUtils.isEmpty(charSet) ? StandardCharsets.UTF_8.name() : charSet))) {
+            return decoder.apply(reader);
+        } catch (JsonIOException | JsonSyntaxException e) {
+            logger.warn("Parsing json from {} failed {}", url, e);
+            transport.discardConnection(connection);
+            throw e;
+        } catch (IOException e) {
+            transport.discardConnection(connection);
+            throw e;
+        }
+    }
+
+    private String getCoalescerKey(String resultType, String url, @Nullable Map<String, String> customHeaders) {
+        // the cookies are part of the connection, so only custom headers (which can replace them) must be added
+        return resultType + " " + url + (customHeaders != null ? " " + customHeaders : "");
+    }
+
+    /**
+     * Returns the cached result of the endpoint, or makes the request and caches the parsed result
+     */
+    private <T> T requestAndParseCached(String endpoint, String verb, String url, @Nullable String postData,
+            boolean json, @Nullable Map<String, String> customHeaders, Type type)
+            throws IOException, URISyntaxException {
+        T result = responseCache.get(endpoint, url);
+        if (result != null) {
+            return result;
+        }
+        result = requestAndParse(verb, url, postData, json, customHeaders, type);
+        if (result != null) {
+            responseCache.put(endpoint, url, result);
+        }
+        return result;
+    }
+
+    private <T> T requestAndParseCached(String endpoint, String url, Type type) throws IOException, URISyntaxException {
+        return requestAndParseCached(endpoint, "GET", url, null, false, null, type);
+    }
+
+    /**
+     * Returns the cached catalog of an endpoint whose response is the same for all urls with the same key (e.g. for all
+     * devices of the same type). The response is converted into a read-only catalog once, which is shared by all
+     * callers. Concurrent misses of the same key share one request.
+     *
+     * @return the catalog or null, if the response is empty
+     */
+    private <T, C> @Nullable C requestAndParseCatalog(String endpoint, String key, String url, Type type,
+            Function<T, C> catalogFactory) throws IOException, URISyntaxException {
+        C catalog = responseCache.get(endpoint, key);
+        if (catalog != null) {
+            return catalog;
+        }
+        return catalogCoalescer.execute(endpoint + " " + key, () -> {
+            T response = requestAndParse(url, type);
+            if (response == null) {
+                return null;
+            }
+            C newCatalog = catalogFactory.apply(response);
+            responseCache.put(endpoint, key, newCatalog);
+            return newCatalog;
+        });
+    }
+
+    public void invalidateCache(String endpoint) {
+        responseCache.invalidate(endpoint);
+    }
+
+    /**
+     * Discards the cached notification sounds, playlists and music providers, so they are fetched again on the next
+     * refresh
+     */
+    public void invalidateCatalogs() {
+        responseCache.invalidate(CACHE_NOTIFICATION_SOUNDS);
+        responseCache.invalidate(CACHE_PLAYLISTS);
+        responseCache.invalidate(CACHE_MUSIC_PROVIDERS);
+    }
+
+    /**
+     * Returns the counters of the connection, used for the statistics page of the account servlet
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("Executed GET requests", requestCoalescer.getExecutedRequests());
+        statistics.put("Saved GET requests (coalesced)", requestCoalescer.getSavedRequests());
+        statistics.put("Saved catalog requests (same device type)", catalogCoalescer.getSavedRequests());
+        responseCache.appendStatistics(statistics);
+        return statistics;
+    }
+
+    private void makeRequestAndReleaseConnection(String verb, String url, @Nullable String postData, boolean json)
+            throws IOException, URISyntaxException {
+        HttpsURLConnection connection = makeRequest(verb, url, postData, json, true, null);
+        transport.releaseConnection(connection);
+    }
+
+    public void releaseConnection(@Nullable HttpsURLConnection connection) {
+        transport.releaseConnection(connection);
     }
 
     public HttpsURLConnection makeRequest(String verb, String url, @Nullable String postData, boolean json,
@@ -469,7 +678,7 @@ public class Connection {
             HttpsURLConnection connection = null;
             try {
                 logger.debug("Make request to {}", url);
-                connection = (HttpsURLConnection) new URL(currentUrl).openConnection();
+                connection = transport.openConnection(currentUrl);
                 connection.setRequestMethod(verb);
                 connection.setRequestProperty("Accept-Language", "en-US");
                 if (customHeaders == null || !customHeaders.containsKey("User-Agent")) {
@@ -579,25 +788,24 @@ public class Connection {
                     logger.debug("Redirected to {}", location);
                     currentUrl = location;
                     if (autoredirect) {
+                        // consume the redirect body, so that the socket is reused for the next request
+                        transport.releaseConnection(connection);
                         continue;
                     }
                     return connection;
                 }
             } catch (IOException e) {
-
-                if (connection != null) {
-                    connection.disconnect();
-                }
+                transport.discardConnection(connection);
                 logger.warn("Request to url '{}' fails with unkown error", url, e);
                 throw e;
             } catch (Exception e) {
-                if (connection != null) {
-                    connection.disconnect();
-                }
+                transport.discardConnection(connection);
                 throw e;
             }
             if (code != 200) {
-                throw new HttpException(code, verb + " url '" + url + "' failed: " + connection.getResponseMessage());
+                String message = connection.getResponseMessage();
+                transport.releaseConnection(connection);
+                throw new HttpException(code, verb + " url '" + url + "' failed: " + message);
             }
         }
         throw new ConnectionException("Too many redirects");
@@ -708,6 +916,7 @@ public class Connection {
                 JsonExchangeTokenResponse.class);
 
         org.openhab.binding.amazonechocontrol.internal.jsons.JsonExchangeTokenResponse.Response response = exchangeTokenResponse.response;
+        List<HttpCookie> newCookies = new ArrayList<>();
         if (response != null) {
             org.openhab.binding.amazonechocontrol.internal.jsons.JsonExchangeTokenResponse.Tokens tokens = response.tokens;
             if (tokens != null) {
@@ -725,20 +934,34 @@ public class Connection {
                                 if (secure != null) {
                                     httpCookie.setSecure(secure);
                                 }
-                                this.cookieManager.getCookieStore().add(null, httpCookie);
+                                newCookies.add(httpCookie);
                             }
                         }
                     }
                 }
             }
         }
+        // the cookie store is thread safe, requests running in parallel send the old or the new cookies
+        for (HttpCookie httpCookie : newCookies) {
+            this.cookieManager.getCookieStore().add(null, httpCookie);
+        }
         if (!verifyLogin()) {
             throw new ConnectionException("Verify login failed after token exchange");
         }
         this.renewTime = (long) (System.currentTimeMillis() + Connection.expiresIn * 1000d / 0.8d); // start renew at
     }
 
+    /**
+     * Renews the session if necessary. Other requests are not blocked while the token is renewed. Concurrent calls
+     * wait for a running renewal instead of renewing again.
+     */
     public boolean checkRenewSession() throws UnknownHostException, URISyntaxException, IOException {
+        synchronized (renewLock) {
+            return renewSessionIfExpired();
+        }
+    }
+
+    private boolean renewSessionIfExpired() throws UnknownHostException, URISyntaxException, IOException {
         if (System.currentTimeMillis() >= this.renewTime) {
             String renewTokenPostData = "app_name=Amazon%20Alexa&app_version=2.2.223830.0&di.sdk.version=6.10.0&source_token="
                     + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8.name())
@@ -811,6 +1034,7 @@ public class Connection {
 
     public void logout() {
         cookieManager.getCookieStore().removeAll();
+        responseCache.invalidateAll();
         // reset all members
         refreshToken = null;
         loginTime = null;
@@ -832,10 +1056,9 @@ public class Connection {
     // commands and states
 
     public WakeWord[] getWakeWords() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/wake-word?cached=true");
-            JsonWakeWords wakeWords = parseJson(json, JsonWakeWords.class);
+            JsonWakeWords wakeWords = requestAndParseCached(CACHE_WAKE_WORDS,
+                    alexaServer + "/api/wake-word?cached=true", JsonWakeWords.class);
             WakeWord[] result = wakeWords.wakeWords;
             if (result != null) {
                 return result;
@@ -846,58 +1069,38 @@ public class Connection {
         return new WakeWord[0];
     }
 
+    /**
+     * Fetches the smart home network once and decodes the appliances and the light groups in a single pass. The
+     * members of a group are resolved with an index by group identity.
+     */
     public List<SmartHomeDevice> getSmarthomeDeviceList() throws IOException, URISyntaxException {
-        JsonObject json = new JsonParser().parse(getSmarthomeDeviceListJson()).getAsJsonObject();
-        JsonObject smartHomeDevices = json.get("networkDetail").getAsJsonObject().get("locationDetails")
-                .getAsJsonObject().get("locationDetails").getAsJsonObject().get("Default_Location").getAsJsonObject()
-                .get("amazonBridgeDetails").getAsJsonObject().get("amazonBridgeDetails").getAsJsonObject()
-                .get("LambdaBridge_AAA/SonarCloudService").getAsJsonObject().get("applianceDetails").getAsJsonObject()
-                .get("applianceDetails").getAsJsonObject();
-        ArrayList<SmartHomeDevice> smartHomeDeviceArray = new ArrayList<>();
-        Set<String> keys = smartHomeDevices.keySet();
-        for (String key : keys) {
-            JsonObject keyObject = smartHomeDevices.get(key).getAsJsonObject();
-            SmartHomeDevice shd = parseJson(keyObject.toString(), SmartHomeDevice.class);
-            if (keyObject.get("aliases").getAsJsonArray().size() > 0) {
-                shd.alias = new JsonSmartHomeDeviceAlias[1];
-                shd.alias[0] = new JsonSmartHomeDeviceAlias(
-                        keyObject.get("aliases").getAsJsonArray().get(0).getAsJsonObject().get("friendlyName")
-                                .getAsString(),
-                        keyObject.get("aliases").getAsJsonArray().get(0).getAsJsonObject().get("enabled")
-                                .getAsBoolean());
-            }
-            if (keyObject.get("tags").getAsJsonObject().get("tagNameToValueSetMap").getAsJsonObject().size() > 0) {
-                shd.groupIdentity = keyObject.get("tags").getAsJsonObject().get("tagNameToValueSetMap")
-                        .getAsJsonObject().get("groupIdentity").getAsJsonArray().get(0).getAsString();
-            }
-            if (keyObject.get("capabilities").getAsJsonArray().size() > 0) {
-                for (JsonElement obj : keyObject.get("capabilities").getAsJsonArray()) {
-                    String interfaceName = ((JsonObject) obj).get("interfaceName").getAsString();
-                    if (interfaceName.equals(INTERFACE_BRIGHTNESS)) {
-                        shd.brightness = true;
-                    } else if (interfaceName.equals(INTERFACE_COLOR_TEMPERATURE)) {
-                        shd.colorTemperature = true;
-                    } else if (interfaceName.equals(INTERFACE_COLOR)) {
-                        shd.color = true;
-                    }
-                }
+        JsonObject locationDetails = parseSmarthomeLocationDetails(getSmarthomeNetwork());
+        JsonObject smartHomeDevices = locationDetails.getAsJsonObject("amazonBridgeDetails")
+                .getAsJsonObject("amazonBridgeDetails").getAsJsonObject("LambdaBridge_AAA/SonarCloudService")
+                .getAsJsonObject("applianceDetails").getAsJsonObject("applianceDetails");
+        List<SmartHomeDevice> smartHomeDeviceArray = new ArrayList<>();
+        Map<String, List<SmartHomeDevice>> devicesByGroupIdentity = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : smartHomeDevices.entrySet()) {
+            SmartHomeDevice shd = parseSmartHomeDevice(entry.getValue().getAsJsonObject());
+            String groupIdentity = shd.groupIdentity;
+            if (groupIdentity != null) {
+                devicesByGroupIdentity.computeIfAbsent(groupIdentity, k -> new ArrayList<>()).add(shd);
             }
             smartHomeDeviceArray.add(shd);
         }
 
-        List<SmartHomeGroup> groups = this.getSmarthomeDeviceGroups();
-        for (SmartHomeGroup group : groups) {
+        for (SmartHomeGroup group : parseSmarthomeDeviceGroups(locationDetails)) {
             String uuid = UUID.randomUUID().toString();
             JsonSmartHomeDeviceAlias[] alias = new JsonSmartHomeDeviceAlias[1];
-            ArrayList<SmartHomeDevice> smartDevices = new ArrayList<>();
-
-            for (int i = 0; i < smartHomeDeviceArray.size(); ++i) {
-                if (smartHomeDeviceArray.get(i).groupIdentity != null && group.applianceGroupIdentifier.value != null) {
-                    if (smartHomeDeviceArray.get(i).groupIdentity.equals(group.applianceGroupIdentifier.value)) {
-                        smartDevices.add(smartHomeDeviceArray.get(i));
-                        alias[0] = new JsonSmartHomeDeviceAlias(group.applianceGroupName, true);
-                    }
-                }
+            List<SmartHomeDevice> smartDevices = null;
+            SmartHomeGroupIdentifier groupIdentifier = group.applianceGroupIdentifier;
+            if (groupIdentifier != null && groupIdentifier.value != null) {
+                smartDevices = devicesByGroupIdentity.get(groupIdentifier.value);
+            }
+            if (smartDevices == null) {
+                smartDevices = new ArrayList<>();
+            } else {
+                alias[0] = new JsonSmartHomeDeviceAlias(group.applianceGroupName, true);
             }
 
             SmartHomeDevice[] smartDevicesArray = new SmartHomeDevice[smartDevices.size()];
@@ -908,35 +1111,65 @@ public class Connection {
 
             smartHomeDeviceArray.add(shdGroup);
         }
-
-        if (smartHomeDeviceArray.isEmpty()) {
-            return new ArrayList<>();
-        }
-
         return smartHomeDeviceArray;
     }
 
     public List<SmartHomeGroup> getSmarthomeDeviceGroups() throws IOException, URISyntaxException {
-        JsonObject json = new JsonParser().parse(getSmarthomeDeviceListJson()).getAsJsonObject();
-        JsonObject smartHomeGroups = json.get("networkDetail").getAsJsonObject().get("locationDetails")
-                .getAsJsonObject().get("locationDetails").getAsJsonObject().get("Default_Location").getAsJsonObject()
-                .get("applianceGroups").getAsJsonObject().get("applianceGroups").getAsJsonObject();
-        ArrayList<SmartHomeGroup> smartHomeGroupArray = new ArrayList<>();
-        Set<String> keys = smartHomeGroups.keySet();
-        for (String key : keys) {
-            JsonObject keyObject = smartHomeGroups.get(key).getAsJsonObject();
-            SmartHomeGroup shg = parseJson(keyObject.toString(), SmartHomeGroup.class);
+        return parseSmarthomeDeviceGroups(parseSmarthomeLocationDetails(getSmarthomeNetwork()));
+    }
 
-            smartHomeGroupArray.add(shg);
-        }
+    private JsonElement getSmarthomeNetwork() throws IOException, URISyntaxException {
+        // the network detail is delivered as json document embedded in a string
+        return requestAndDecodeNestedJson(alexaServer + "/api/phoenix?includeRelationships=true");
+    }
 
-        if (smartHomeGroupArray.isEmpty()) {
-            return new ArrayList<>();
-        }
+    private JsonObject parseSmarthomeLocationDetails(JsonElement network) {
+        return network.getAsJsonObject().getAsJsonObject("networkDetail").getAsJsonObject("locationDetails")
+                .getAsJsonObject("locationDetails").getAsJsonObject("Default_Location");
+    }
 
+    private List<SmartHomeGroup> parseSmarthomeDeviceGroups(JsonObject locationDetails) {
+        JsonObject smartHomeGroups = locationDetails.getAsJsonObject("applianceGroups")
+                .getAsJsonObject("applianceGroups");
+        List<SmartHomeGroup> smartHomeGroupArray = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : smartHomeGroups.entrySet()) {
+            smartHomeGroupArray.add(gson.fromJson(entry.getValue(), SmartHomeGroup.class));
+        }
         return smartHomeGroupArray;
     }
 
+    private SmartHomeDevice parseSmartHomeDevice(JsonObject keyObject) {
+        SmartHomeDevice shd = gson.fromJson(keyObject, SmartHomeDevice.class);
+        JsonArray aliases = keyObject.getAsJsonArray("aliases");
+        if (aliases != null && aliases.size() > 0) {
+            JsonObject firstAlias = aliases.get(0).getAsJsonObject();
+            shd.alias = new JsonSmartHomeDeviceAlias[1];
+            shd.alias[0] = new JsonSmartHomeDeviceAlias(firstAlias.get("friendlyName").getAsString(),
+                    firstAlias.get("enabled").getAsBoolean());
+        }
+        JsonObject tags = keyObject.getAsJsonObject("tags");
+        if (tags != null) {
+            JsonObject tagNameToValueSetMap = tags.getAsJsonObject("tagNameToValueSetMap");
+            if (tagNameToValueSetMap != null && tagNameToValueSetMap.has("groupIdentity")) {
+                shd.groupIdentity = tagNameToValueSetMap.getAsJsonArray("groupIdentity").get(0).getAsString();
+            }
+        }
+        JsonArray capabilities = keyObject.getAsJsonArray("capabilities");
+        if (capabilities != null) {
+            for (JsonElement obj : capabilities) {
+                String interfaceName = obj.getAsJsonObject().get("interfaceName").getAsString();
+                if (interfaceName.equals(INTERFACE_BRIGHTNESS)) {
+                    shd.brightness = true;
+                } else if (interfaceName.equals(INTERFACE_COLOR_TEMPERATURE)) {
+                    shd.colorTemperature = true;
+                } else if (interfaceName.equals(INTERFACE_COLOR)) {
+                    shd.color = true;
+                }
+            }
+        }
+        return shd;
+    }
+
     // Placeholder for an api-request
     public List<JsonColors> getEchoLightColors() {
         ArrayList<JsonColors> colors = new ArrayList<>();
@@ -961,8 +1194,7 @@ public class Connection {
     }
 
     public List<Device> getDeviceList() throws IOException, URISyntaxException {
-        String json = getDeviceListJson();
-        JsonDevices devices = parseJson(json, JsonDevices.class);
+        JsonDevices devices = requestAndParse(alexaServer + "/api/devices-v2/device?cached=false", JsonDevices.class);
         Device[] result = devices.devices;
         if (result == null) {
             return new ArrayList<>();
@@ -970,230 +1202,139 @@ public class Connection {
         return new ArrayList<>(Arrays.asList(result));
     }
 
-    public String getSmarthomeDeviceListJson() throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/phoenix?includeRelationships=true");
-        json = json.replace("\\", "");
-        json = json.replace("\"{", "{");
-        json = json.replace("}\"", "}");
-        return json;
-    }
-
     public String getDeviceListJson() throws IOException, URISyntaxException {
         String json = makeRequestAndReturnString(alexaServer + "/api/devices-v2/device?cached=false");
         return json;
     }
 
-    public int getLightGroupBrightness(Thing device) throws IOException, URISyntaxException {
-        Map<String, String> props = device.getProperties();
-        List<Float> states = new ArrayList<>();
-        if (props.containsKey(DEVICE_PROPERTY_APPLIANCE_ID + "0")) {
-            int counter = 0;
-            for (String key : props.keySet()) {
-                if (key.contains(DEVICE_PROPERTY_APPLIANCE_ID + counter)) {
-                    JsonArray capabilities = this.getBulbCapabilities(props.get(key));
-
-                    if (capabilities == null) {
-                        break;
-                    }
-
-                    Float state = null;
-                    for (JsonElement capability : capabilities) {
-                        JsonObject capabilityObject = capability.getAsJsonObject();
-                        if (capabilityObject.get("namespace").getAsString().equals("Alexa.BrightnessController")) {
-                            state = capabilityObject.get("value").getAsFloat();
-                            states.add(state);
-                        }
-                    }
-                    ++counter;
-                }
-            }
-
-            if (states.size() > 0) {
-                return Collections.max(states).intValue();
+    /**
+     * Queries the states of the given appliances. Large sets are splitted into several requests, a failed request
+     * does not discard the results of the others.
+     *
+     * @param failedApplianceIds receives the ids of the appliances whose request failed
+     * @return the state of each appliance which has reported its state
+     */
+    public Map<String, ApplianceStateSnapshot> getApplianceStates(Collection<String> applianceIds,
+            Collection<String> failedApplianceIds) {
+        Map<String, ApplianceStateSnapshot> applianceStates = new HashMap<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(applianceIds));
+        for (int start = 0; start < ids.size(); start += MAX_APPLIANCE_STATES_PER_REQUEST) {
+            List<String> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_APPLIANCE_STATES_PER_REQUEST));
+            JsonArray stateRequests = new JsonArray();
+            for (String applianceId : chunk) {
+                JsonObject stateRequest = new JsonObject();
+                stateRequest.addProperty("entityId", applianceId);
+                stateRequest.addProperty("entityType", "APPLIANCE");
+                stateRequests.add(stateRequest);
             }
-        }
-
-        return -1;
-    }
-
-    public String getBulbColor(Thing device) throws IOException, URISyntaxException {
-        Map<String, String> props = device.getProperties();
-        String applianceId = props.get(DEVICE_PROPERTY_APPLIANCE_ID);
-
-        if (applianceId == null) {
-            return null;
-        }
-
-        String color = null;
-        if (device.getThingTypeUID().equals(THING_TYPE_LIGHT)) {
-            JsonArray capabilities = this.getBulbCapabilities(applianceId);
-
-            if (capabilities == null) {
-                return null;
-            }
-
-            for (JsonElement capability : capabilities) {
-                JsonObject capabilityObject = capability.getAsJsonObject();
-                if (capabilityObject.get("namespace").getAsString().equals("Alexa.ColorPropertiesController")) {
-                    try {
-                        color = capabilityObject.getAsJsonObject().get("value").getAsJsonObject().get("name")
-                                .getAsString();
-                    } catch (Exception e) {
-                        logger.error("getting bulb color failed {}", e);
-                    }
+            JsonObject request = new JsonObject();
+            request.add("stateRequests", stateRequests);
+            try {
+                JsonObject response = requestAndParse("POST", alexaServer + "/api/phoenix/state",
+                        request.toString(), true, null, JsonObject.class);
+                if (response != null) {
+                    parseApplianceStates(response, applianceStates);
                 }
+            } catch (IOException | URISyntaxException | HttpException | JsonSyntaxException | ConnectionException e) {
+                logger.debug("Query of {} appliance states failed {}", chunk.size(), e);
+                failedApplianceIds.addAll(chunk);
             }
         }
-
-        return color;
+        return applianceStates;
     }
 
-    public int getBulbBrightness(Thing device) throws IOException, URISyntaxException {
-        Map<String, String> props = device.getProperties();
-        String applianceId = props.get(DEVICE_PROPERTY_APPLIANCE_ID);
-
-        if (applianceId == null) {
-            return -1;
+    private void parseApplianceStates(JsonObject response, Map<String, ApplianceStateSnapshot> applianceStates) {
+        JsonElement deviceStates = response.get("deviceStates");
+        if (deviceStates == null || !deviceStates.isJsonArray()) {
+            return;
         }
-
-        JsonArray capabilities = this.getBulbCapabilities(applianceId);
-
-        if (capabilities == null) {
-            return -1;
-        }
-
-        int brightness = -1;
-        if (device.getThingTypeUID().equals(THING_TYPE_LIGHT)
-                || device.getThingTypeUID().equals(THING_TYPE_LIGHT_GROUP)) {
-            for (JsonElement capability : capabilities) {
-                JsonObject capabilityObject = capability.getAsJsonObject();
-                if (capabilityObject.get("namespace").getAsString().equals("Alexa.BrightnessController")) {
-                    brightness = capabilityObject.get("value").getAsInt();
-                }
+        long timestamp = System.currentTimeMillis();
+        for (JsonElement deviceState : deviceStates.getAsJsonArray()) {
+            if (!deviceState.isJsonObject()) {
+                continue;
             }
-
-            if (brightness == -1) {
-                return 100;
+            JsonElement entity = deviceState.getAsJsonObject().get("entity");
+            JsonElement capabilityStates = deviceState.getAsJsonObject().get("capabilityStates");
+            if (entity == null || !entity.isJsonObject() || capabilityStates == null
+                    || !capabilityStates.isJsonArray()) {
+                continue;
             }
-
-            return brightness;
-        }
-        return -1;
-    }
-
-    public String getLightGroupState(Thing device) throws IOException, URISyntaxException {
-        Map<String, String> props = device.getProperties();
-        List<String> states = new ArrayList<>();
-        if (props.containsKey(DEVICE_PROPERTY_APPLIANCE_ID + "0")) {
-            int counter = 0;
-            for (String key : props.keySet()) {
-                if (key.contains(DEVICE_PROPERTY_APPLIANCE_ID + counter)) {
-                    JsonArray capabilities = this.getBulbCapabilities(props.get(key));
-                    String state = null;
-                    for (JsonElement capability : capabilities) {
-                        JsonObject capabilityObject = capability.getAsJsonObject();
-                        if (capabilityObject.get("namespace").getAsString().equals("Alexa.PowerController")) {
-                            state = capabilityObject.get("value").getAsString();
-                            states.add(state);
-                        }
+            JsonElement entityId = entity.getAsJsonObject().get("entityId");
+            if (entityId == null || !entityId.isJsonPrimitive()) {
+                continue;
+            }
+            JsonArray capabilities = new JsonArray();
+            for (JsonElement capabilityState : capabilityStates.getAsJsonArray()) {
+                // the capability states are json objects embedded as strings
+                JsonElement capability = capabilityState;
+                if (capabilityState.isJsonPrimitive()) {
+                    try {
+                        capability = new JsonParser().parse(capabilityState.getAsString());
+                    } catch (JsonSyntaxException e) {
+                        logger.debug("Invalid capability state of {} skipped {}", entityId.getAsString(), e);
+                        continue;
                     }
-                    ++counter;
+                }
+                if (capability.isJsonObject()) {
+                    capabilities.add(capability);
                 }
             }
-            if (states.contains("ON")) {
-                return "ON";
-            } else {
-                return "OFF";
-            }
+            applianceStates.put(entityId.getAsString(),
+                    ApplianceStateSnapshot.fromCapabilityStates(capabilities, timestamp));
         }
-
-        return null;
     }
 
-    public String getBulbState(Thing device) throws IOException, URISyntaxException {
-        Map<String, String> props = device.getProperties();
-        String applianceId = props.get(DEVICE_PROPERTY_APPLIANCE_ID);
+    public JsonPlayerState getPlayer(Device device) throws IOException, URISyntaxException {
+        JsonPlayerState playerState = requestAndParse(alexaServer + "/api/np/player?deviceSerialNumber="
+                + device.serialNumber + "&deviceType=" + device.deviceType + "&screenWidth=1440",
+                JsonPlayerState.class);
+        return playerState;
+    }
 
-        if (applianceId == null) {
+    /**
+     * Returns the player info of all devices with a media session, by serial number. The devices of a multi room
+     * group share the player info of the group session. Devices without media session are missing.
+     *
+     * @return the player infos or null, if the response contains no session with a known device (e.g. an empty or
+     *         unexpected response), then the player state must be requested per device
+     */
+    public @Nullable Map<String, PlayerInfo> getMediaSessions() throws IOException, URISyntaxException {
+        JsonMediaSessions mediaSessions = requestAndParse(alexaServer + "/api/np/list-media-sessions",
+                JsonMediaSessions.class);
+        if (mediaSessions == null) {
             return null;
         }
-
-        String state = null;
-        if (device.getThingTypeUID().equals(THING_TYPE_LIGHT)
-                || device.getThingTypeUID().equals(THING_TYPE_LIGHT_GROUP)) {
-            JsonArray capabilities = this.getBulbCapabilities(applianceId);
-
-            if (capabilities == null) {
-                return null;
-            }
-
-            for (JsonElement capability : capabilities) {
-                JsonObject capabilityObject = capability.getAsJsonObject();
-                if (capabilityObject.get("namespace").getAsString().equals("Alexa.PowerController")) {
-                    try {
-                        state = capabilityObject.get("value").getAsString();
-                    } catch (Exception e) {
-                        logger.error("getting bulb state failed {}", e);
+        Map<String, PlayerInfo> result = new HashMap<>();
+        MediaSession[] mediaSessionList = mediaSessions.mediaSessionList;
+        if (mediaSessionList != null) {
+            for (MediaSession mediaSession : mediaSessionList) {
+                PlayerInfo playerInfo = mediaSession != null ? mediaSession.nowPlayingData : null;
+                Endpoint[] endpointList = mediaSession != null ? mediaSession.endpointList : null;
+                if (playerInfo == null || endpointList == null) {
+                    continue;
+                }
+                for (Endpoint endpoint : endpointList) {
+                    EndpointId id = endpoint != null ? endpoint.id : null;
+                    String serialNumber = id != null ? id.deviceSerialNumber : null;
+                    if (serialNumber != null) {
+                        result.put(serialNumber, playerInfo);
                     }
                 }
             }
         }
-
-        if (state == null) {
-            return null;
-        }
-
-        return state;
-    }
-
-    public JsonArray getBulbCapabilities(String applianceId) throws IOException, URISyntaxException {
-        String json = this.getBulbStateJson(applianceId);
-        JsonElement jobject = new JsonParser().parse(json);
-        JsonArray capabilities = null;
-
-        try {
-            capabilities = jobject.getAsJsonObject().get("deviceStates").getAsJsonArray().get(0).getAsJsonObject()
-                    .get("capabilityStates").getAsJsonArray();
-        } catch (Exception e) {
-            logger.error("getting capabilities failed {}", e);
-        }
-
-        return capabilities;
-    }
-
-    public String getBulbStateJson(String applianceId) throws IOException, URISyntaxException {
-        String command = "{ \"stateRequests\": [{ \"entityId\": \"" + applianceId
-                + "\", \"entityType\": \"APPLIANCE\" }] }";
-        String json = makeRequestAndReturnString("POST", alexaServer + "/api/phoenix/state", command, true, null);
-        json = json.replace("\\", "");
-        json = json.replace("\"{", "{");
-        json = json.replace("}\"", "}");
-        if (!json.isEmpty()) {
-            return json;
-        }
-        return null;
-    }
-
-    public JsonPlayerState getPlayer(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/np/player?deviceSerialNumber="
-                + device.serialNumber + "&deviceType=" + device.deviceType + "&screenWidth=1440");
-        JsonPlayerState playerState = parseJson(json, JsonPlayerState.class);
-        return playerState;
+        return result.isEmpty() ? null : result;
     }
 
     public JsonMediaState getMediaState(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/media/state?deviceSerialNumber="
-                + device.serialNumber + "&deviceType=" + device.deviceType);
-        JsonMediaState mediaState = parseJson(json, JsonMediaState.class);
+        JsonMediaState mediaState = requestAndParse(alexaServer + "/api/media/state?deviceSerialNumber="
+                + device.serialNumber + "&deviceType=" + device.deviceType, JsonMediaState.class);
         return mediaState;
     }
 
     public Activity[] getActivities(int number, @Nullable Long startTime) {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/activities?startTime="
-                    + (startTime != null ? startTime : "") + "&size=" + number + "&offset=1");
-            JsonActivities activities = parseJson(json, JsonActivities.class);
+            JsonActivities activities = requestAndParse(alexaServer + "/api/activities?startTime="
+                    + (startTime != null ? startTime : "") + "&size=" + number + "&offset=1", JsonActivities.class);
             Activity[] activiesArray = activities.activities;
             if (activiesArray != null) {
                 return activiesArray;
@@ -1205,30 +1346,48 @@ public class Connection {
     }
 
     public JsonBluetoothStates getBluetoothConnectionStates() {
-        String json;
+        JsonBluetoothStates bluetoothStates;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/bluetooth?cached=true");
+            bluetoothStates = requestAndParseCached(CACHE_BLUETOOTH_STATES,
+                    alexaServer + "/api/bluetooth?cached=true", JsonBluetoothStates.class);
         } catch (IOException | URISyntaxException e) {
             logger.debug("failed to get bluetooth state: {}", e.getMessage());
             return new JsonBluetoothStates();
         }
-        JsonBluetoothStates bluetoothStates = parseJson(json, JsonBluetoothStates.class);
         return bluetoothStates;
     }
 
-    public JsonPlaylists getPlaylists(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(
+    /**
+     * Returns the playlists of the account, the first version of each playlist. The list is shared by all devices of
+     * the account and can not be changed.
+     */
+    public List<PlayList> getPlaylists(Device device) throws IOException, URISyntaxException {
+        String mediaOwnerCustomerId = StringUtils.isEmpty(this.accountCustomerId) ? device.deviceOwnerCustomerId
+                : this.accountCustomerId;
+        List<PlayList> playlists = requestAndParseCatalog(CACHE_PLAYLISTS, String.valueOf(mediaOwnerCustomerId),
                 alexaServer + "/api/cloudplayer/playlists?deviceSerialNumber=" + device.serialNumber + "&deviceType="
-                        + device.deviceType + "&mediaOwnerCustomerId=" + (StringUtils.isEmpty(this.accountCustomerId)
-                                ? device.deviceOwnerCustomerId : this.accountCustomerId));
-        JsonPlaylists playlists = parseJson(json, JsonPlaylists.class);
-        return playlists;
+                        + device.deviceType + "&mediaOwnerCustomerId=" + mediaOwnerCustomerId,
+                JsonPlaylists.class, this::createPlaylistCatalog);
+        return playlists != null ? playlists : Collections.emptyList();
+    }
+
+    private List<PlayList> createPlaylistCatalog(JsonPlaylists playlists) {
+        List<PlayList> result = new ArrayList<>();
+        Map<String, @Nullable PlayList @Nullable []> playlistMap = playlists.playlists;
+        if (playlistMap != null) {
+            for (PlayList[] innerLists : playlistMap.values()) {
+                if (innerLists != null && innerLists.length > 0 && innerLists[0] != null) {
+                    result.add(innerLists[0]);
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
     }
 
     public void command(Device device, String command) throws IOException, URISyntaxException {
         String url = alexaServer + "/api/np/command?deviceSerialNumber=" + device.serialNumber + "&deviceType="
                 + device.deviceType;
-        makeRequest("POST", url, command, true, true, null);
+        makeRequestAndReleaseConnection("POST", url, command, true);
     }
 
     public void smartHomeCommand(String entityId, String action, String color, double brightness)
@@ -1252,7 +1411,7 @@ public class Connection {
                     + ", \"entityType\": \"APPLIANCE\", \"parameters\": { \"action\": " + "\"" + action + "\""
                     + ", \"brightness\": \"" + brightness + "\" }}]}";
         }
-        makeRequest("PUT", url, requestBody, true, true, null);
+        makeRequestAndReleaseConnection("PUT", url, requestBody, true);
     }
 
     public void notificationVolume(Device device, int volume) throws IOException, URISyntaxException {
@@ -1260,7 +1419,8 @@ public class Connection {
                 + "/" + device.serialNumber;
         String command = "{\"deviceSerialNumber\":\"" + device.serialNumber + "\",\"deviceType\":\"" + device.deviceType
                 + "\",\"softwareVersion\":\"" + device.softwareVersion + "\",\"volumeLevel\":" + volume + "}";
-        makeRequest("PUT", url, command, true, true, null);
+        makeRequestAndReleaseConnection("PUT", url, command, true);
+        responseCache.invalidate(CACHE_DEVICE_NOTIFICATION_STATES);
     }
 
     public void ascendingAlarm(Device device, boolean ascendingAlarm) throws IOException, URISyntaxException {
@@ -1268,14 +1428,14 @@ public class Connection {
         String command = "{\"ascendingAlarmEnabled\":" + (ascendingAlarm ? "true" : "false")
                 + ",\"deviceSerialNumber\":\"" + device.serialNumber + "\",\"deviceType\":\"" + device.deviceType
                 + "\",\"deviceAccountId\":null}";
-        makeRequest("PUT", url, command, true, true, null);
+        makeRequestAndReleaseConnection("PUT", url, command, true);
+        responseCache.invalidate(CACHE_ASCENDING_ALARM);
     }
 
     public DeviceNotificationState[] getDeviceNotificationStates() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/device-notification-state");
-            JsonDeviceNotificationState result = parseJson(json, JsonDeviceNotificationState.class);
+            JsonDeviceNotificationState result = requestAndParseCached(CACHE_DEVICE_NOTIFICATION_STATES,
+                    alexaServer + "/api/device-notification-state", JsonDeviceNotificationState.class);
             DeviceNotificationState[] deviceNotificationStates = result.deviceNotificationStates;
             if (deviceNotificationStates != null) {
                 return deviceNotificationStates;
@@ -1287,10 +1447,9 @@ public class Connection {
     }
 
     public AscendingAlarmModel[] getAscendingAlarm() {
-        String json;
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/ascending-alarm");
-            JsonAscendingAlarm result = parseJson(json, JsonAscendingAlarm.class);
+            JsonAscendingAlarm result = requestAndParseCached(CACHE_ASCENDING_ALARM,
+                    alexaServer + "/api/ascending-alarm", JsonAscendingAlarm.class);
             AscendingAlarmModel[] ascendingAlarmModelList = result.ascendingAlarmModelList;
             if (ascendingAlarmModelList != null) {
                 return ascendingAlarmModelList;
@@ -1302,29 +1461,31 @@ public class Connection {
     }
 
     public void bluetooth(Device device, @Nullable String address) throws IOException, URISyntaxException {
+        responseCache.invalidate(CACHE_BLUETOOTH_STATES);
         if (StringUtils.isEmpty(address)) {
             // disconnect
-            makeRequest("POST",
+            makeRequestAndReleaseConnection("POST",
                     alexaServer + "/api/bluetooth/disconnect-sink/" + device.deviceType + "/" + device.serialNumber, "",
-                    true, true, null);
+                    true);
         } else {
-            makeRequest("POST",
+            makeRequestAndReleaseConnection("POST",
                     alexaServer + "/api/bluetooth/pair-sink/" + device.deviceType + "/" + device.serialNumber,
-                    "{\"bluetoothDeviceAddress\":\"" + address + "\"}", true, true, null);
+                    "{\"bluetoothDeviceAddress\":\"" + address + "\"}", true);
         }
+        responseCache.invalidate(CACHE_BLUETOOTH_STATES);
     }
 
     public void playRadio(Device device, @Nullable String stationId) throws IOException, URISyntaxException {
         if (StringUtils.isEmpty(stationId)) {
             command(device, "{\"type\":\"PauseCommand\"}");
         } else {
-            makeRequest("POST",
+            makeRequestAndReleaseConnection("POST",
                     alexaServer + "/api/tunein/queue-and-play?deviceSerialNumber=" + device.serialNumber
                             + "&deviceType=" + device.deviceType + "&guideId=" + stationId
                             + "&contentType=station&callSign=&mediaOwnerCustomerId="
                             + (StringUtils.isEmpty(this.accountCustomerId) ? device.deviceOwnerCustomerId
                                     : this.accountCustomerId),
-                    "", true, true, null);
+                    "", true);
         }
     }
 
@@ -1333,13 +1494,13 @@ public class Connection {
             command(device, "{\"type\":\"PauseCommand\"}");
         } else {
             String command = "{\"trackId\":\"" + trackId + "\",\"playQueuePrime\":true}";
-            makeRequest("POST",
+            makeRequestAndReleaseConnection("POST",
                     alexaServer + "/api/cloudplayer/queue-and-play?deviceSerialNumber=" + device.serialNumber
                             + "&deviceType=" + device.deviceType
                             + "&mediaOwnerCustomerId=" + (StringUtils.isEmpty(this.accountCustomerId)
                                     ? device.deviceOwnerCustomerId : this.accountCustomerId)
                             + "&shuffle=false",
-                    command, true, true, null);
+                    command, true);
         }
     }
 
@@ -1349,13 +1510,13 @@ public class Connection {
             command(device, "{\"type\":\"PauseCommand\"}");
         } else {
             String command = "{\"playlistId\":\"" + playListId + "\",\"playQueuePrime\":true}";
-            makeRequest("POST",
+            makeRequestAndReleaseConnection("POST",
                     alexaServer + "/api/cloudplayer/queue-and-play?deviceSerialNumber=" + device.serialNumber
                             + "&deviceType=" + device.deviceType
                             + "&mediaOwnerCustomerId=" + (StringUtils.isEmpty(this.accountCustomerId)
                                     ? device.deviceOwnerCustomerId : this.accountCustomerId)
                             + "&shuffle=false",
-                    command, true, true, null);
+                    command, true);
         }
     }
 
@@ -1459,7 +1620,7 @@ public class Connection {
         Map<String, String> headers = new HashMap<String, String>();
         headers.put("Routines-Version", "1.1.218665");
 
-        makeRequest("POST", alexaServer + "/api/behaviors/preview", json, true, true, null);
+        makeRequestAndReleaseConnection("POST", alexaServer + "/api/behaviors/preview", json, true);
     }
 
     private void executeSequenceNodes(JsonArray nodesToExecute) throws IOException, URISyntaxException {
@@ -1508,21 +1669,27 @@ public class Connection {
     public void startRoutine(Device device, String utterance) throws IOException, URISyntaxException {
         JsonAutomation found = null;
         String deviceLocale = "";
-        for (JsonAutomation routine : getRoutines()) {
-            Trigger[] triggers = routine.triggers;
-            if (triggers != null && routine.sequence != null) {
-                for (JsonAutomation.Trigger trigger : triggers) {
-                    if (trigger == null) {
-                        continue;
-                    }
-                    Payload payload = trigger.payload;
-                    if (payload == null) {
-                        continue;
-                    }
-                    if (StringUtils.equalsIgnoreCase(payload.utterance, utterance)) {
-                        found = routine;
-                        deviceLocale = payload.locale;
-                        break;
+        for (int attempt = 0; attempt < 2 && found == null; attempt++) {
+            if (attempt > 0) {
+                // the routine could be created after the routines were cached
+                responseCache.invalidate(CACHE_ROUTINES);
+            }
+            for (JsonAutomation routine : getRoutines()) {
+                Trigger[] triggers = routine.triggers;
+                if (triggers != null && routine.sequence != null) {
+                    for (JsonAutomation.Trigger trigger : triggers) {
+                        if (trigger == null) {
+                            continue;
+                        }
+                        Payload payload = trigger.payload;
+                        if (payload == null) {
+                            continue;
+                        }
+                        if (StringUtils.equalsIgnoreCase(payload.utterance, utterance)) {
+                            found = routine;
+                            deviceLocale = payload.locale;
+                            break;
+                        }
                     }
                 }
             }
@@ -1564,21 +1731,21 @@ public class Connection {
             request.sequenceJson = sequenceJson;
 
             String requestJson = gson.toJson(request);
-            makeRequest("POST", alexaServer + "/api/behaviors/preview", requestJson, true, true, null);
+            makeRequestAndReleaseConnection("POST", alexaServer + "/api/behaviors/preview", requestJson, true);
         } else {
             logger.warn("Routine {} not found", utterance);
         }
     }
 
     public JsonAutomation[] getRoutines() throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/behaviors/automations");
-        JsonAutomation[] result = parseJson(json, JsonAutomation[].class);
+        JsonAutomation[] result = requestAndParseCached(CACHE_ROUTINES, alexaServer + "/api/behaviors/automations",
+                JsonAutomation[].class);
         return result;
     }
 
     public JsonFeed[] getEnabledFlashBriefings() throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(alexaServer + "/api/content-skills/enabled-feeds");
-        JsonEnabledFeeds result = parseJson(json, JsonEnabledFeeds.class);
+        JsonEnabledFeeds result = requestAndParseCached(CACHE_ENABLED_FEEDS,
+                alexaServer + "/api/content-skills/enabled-feeds", JsonEnabledFeeds.class);
         JsonFeed[] enabledFeeds = result.enabledFeeds;
         if (enabledFeeds != null) {
             return enabledFeeds;
@@ -1590,19 +1757,34 @@ public class Connection {
         JsonEnabledFeeds enabled = new JsonEnabledFeeds();
         enabled.enabledFeeds = enabledFlashBriefing;
         String json = gsonWithNullSerialization.toJson(enabled);
-        makeRequest("POST", alexaServer + "/api/content-skills/enabled-feeds", json, true, true, null);
+        makeRequestAndReleaseConnection("POST", alexaServer + "/api/content-skills/enabled-feeds", json, true);
+        responseCache.invalidate(CACHE_ENABLED_FEEDS);
     }
 
-    public JsonNotificationSound[] getNotificationSounds(Device device) throws IOException, URISyntaxException {
-        String json = makeRequestAndReturnString(
+    /**
+     * Returns the notification sounds of the device. The list is shared by all devices with the same type and software
+     * version and can not be changed.
+     */
+    public List<JsonNotificationSound> getNotificationSounds(Device device) throws IOException, URISyntaxException {
+        List<JsonNotificationSound> notificationSounds = requestAndParseCatalog(CACHE_NOTIFICATION_SOUNDS,
+                device.deviceType + "/" + device.softwareVersion,
                 alexaServer + "/api/notification/sounds?deviceSerialNumber=" + device.serialNumber + "&deviceType="
-                        + device.deviceType + "&softwareVersion=" + device.softwareVersion);
-        JsonNotificationSounds result = parseJson(json, JsonNotificationSounds.class);
-        JsonNotificationSound[] notificationSounds = result.notificationSounds;
-        if (notificationSounds != null) {
-            return notificationSounds;
+                        + device.deviceType + "&softwareVersion=" + device.softwareVersion,
+                JsonNotificationSounds.class, this::createNotificationSoundCatalog);
+        return notificationSounds != null ? notificationSounds : Collections.emptyList();
+    }
+
+    private List<JsonNotificationSound> createNotificationSoundCatalog(JsonNotificationSounds notificationSounds) {
+        List<JsonNotificationSound> result = new ArrayList<>();
+        JsonNotificationSound[] soundArray = notificationSounds.notificationSounds;
+        if (soundArray != null) {
+            for (JsonNotificationSound notificationSound : soundArray) {
+                if (notificationSound != null) {
+                    result.add(notificationSound);
+                }
+            }
         }
-        return new JsonNotificationSound[0];
+        return Collections.unmodifiableList(result);
     }
 
     public JsonNotificationResponse notification(Device device, String type, @Nullable String label,
@@ -1627,9 +1809,8 @@ public class Connection {
         request.id = "create" + type;
 
         String data = gsonWithNullSerialization.toJson(request);
-        String response = makeRequestAndReturnString("PUT", alexaServer + "/api/notifications/createReminder", data,
-                true, null);
-        JsonNotificationResponse result = parseJson(response, JsonNotificationResponse.class);
+        JsonNotificationResponse result = requestAndParse("PUT", alexaServer + "/api/notifications/createReminder",
+                data, true, null, JsonNotificationResponse.class);
         return result;
     }
 
@@ -1639,28 +1820,29 @@ public class Connection {
 
     public JsonNotificationResponse getNotificationState(JsonNotificationResponse notification)
             throws IOException, URISyntaxException {
-        String response = makeRequestAndReturnString("GET", alexaServer + "/api/notifications/" + notification.id, null,
-                true, null);
-        JsonNotificationResponse result = parseJson(response, JsonNotificationResponse.class);
+        JsonNotificationResponse result = requestAndParse("GET", alexaServer + "/api/notifications/" + notification.id,
+                null, true, null, JsonNotificationResponse.class);
         return result;
     }
 
     public List<JsonMusicProvider> getMusicProviders() {
-        String response;
+        JsonMusicProvider[] result;
         try {
             Map<String, String> headers = new HashMap<String, String>();
             headers.put("Routines-Version", "1.1.218665");
-            response = makeRequestAndReturnString("GET",
-                    alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music", null, true, headers);
+            result = requestAndParseCached(CACHE_MUSIC_PROVIDERS, "GET",
+                    alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music", null, true, headers,
+                    JsonMusicProvider[].class);
         } catch (IOException | URISyntaxException e) {
             logger.warn("getMusicProviders fails: {}", e.getMessage());
             return new ArrayList<>();
         }
-        if (StringUtils.isEmpty(response)) {
+        // an empty response results in null
+        if (result == null) {
             return new ArrayList<>();
         }
-        JsonMusicProvider[] result = parseJson(response, JsonMusicProvider[].class);
-        return Arrays.asList(result);
+        // the array is the cached one, shared by all echo handlers
+        return Collections.unmodifiableList(Arrays.asList(result));
     }
 
     public void playMusicVoiceCommand(Device device, String providerId, String voiceCommand)
@@ -1709,6 +1891,6 @@ public class Connection {
         startRoutineRequest.status = null;
 
         String postData = gson.toJson(startRoutineRequest);
-        makeRequest("POST", alexaServer + "/api/behaviors/preview", postData, true, true, null);
+        makeRequestAndReleaseConnection("POST", alexaServer + "/api/behaviors/preview", postData, true);
     }
 }
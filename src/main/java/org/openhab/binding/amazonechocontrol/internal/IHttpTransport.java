@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.io.IOException;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link IHttpTransport} is used by the {@link Connection} to open and recycle the https connections to the
+ * amazon servers
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public interface IHttpTransport {
+
+    /**
+     * Opens a new (not yet connected) connection to the given url
+     */
+    public HttpsURLConnection openConnection(String url) throws IOException;
+
+    /**
+     * Hands the connection back after the response was processed. Any unread response body is consumed, so that the
+     * underlying socket can be used for the next request to the same host.
+     */
+    public void releaseConnection(@Nullable HttpsURLConnection connection);
+
+    /**
+     * Closes the underlying socket of a connection which is in an undefined state (e.g. after an I/O error)
+     */
+    public void discardConnection(@Nullable HttpsURLConnection connection);
+}
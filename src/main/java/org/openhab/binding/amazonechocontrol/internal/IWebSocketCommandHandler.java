@@ -23,5 +23,19 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPushCommand;
 @NonNullByDefault
 public interface IWebSocketCommandHandler {
 
+    /**
+     * Called on the thread which reads the web socket, the implementation must not block
+     */
     public void webSocketCommandReceived(JsonPushCommand pushCommand);
+
+    /**
+     * Called when the session of the connection is established
+     */
+    public void webSocketConnectionOpened(WebSocketConnection webSocketConnection);
+
+    /**
+     * Called once when the connection is closed, by the server, an error, a missing pong or {@link
+     * WebSocketConnection#close()}. The implementation must not block.
+     */
+    public void webSocketConnectionClosed(WebSocketConnection webSocketConnection);
 }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link KeepAliveHttpTransport} opens all connections with one shared {@link SSLSocketFactory}. The JDK only
+ * reuses a kept alive https socket if the same socket factory is used, so sharing the factory (and its TLS session
+ * cache) across all {@link Connection} instances avoids a new TLS handshake for every request.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class KeepAliveHttpTransport implements IHttpTransport {
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    public static final int DEFAULT_READ_TIMEOUT = 30000;
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 32;
+    public static final int DEFAULT_SESSION_TIMEOUT = 3600;
+
+    // Bodies larger than this are not drained on release, closing the socket is cheaper in that case
+    private static final int MAX_DRAIN_BYTES = 65536;
+
+    private static @Nullable KeepAliveHttpTransport defaultTransport;
+
+    private final Logger logger = LoggerFactory.getLogger(KeepAliveHttpTransport.class);
+
+    private final SSLSocketFactory sslSocketFactory;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public static synchronized KeepAliveHttpTransport getDefault() {
+        KeepAliveHttpTransport transport = defaultTransport;
+        if (transport == null) {
+            transport = new KeepAliveHttpTransport(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT,
+                    DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT);
+            defaultTransport = transport;
+        }
+        return transport;
+    }
+
+    public KeepAliveHttpTransport(int connectTimeout, int readTimeout, int sessionCacheSize, int sessionTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.sslSocketFactory = createSocketFactory(sessionCacheSize, sessionTimeout);
+    }
+
+    private SSLSocketFactory createSocketFactory(int sessionCacheSize, int sessionTimeout) {
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, null, null);
+            SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(sessionCacheSize);
+                sessionContext.setSessionTimeout(sessionTimeout);
+            }
+            return sslContext.getSocketFactory();
+        } catch (NoSuchAlgorithmException | KeyManagementException e) {
+            logger.warn("Creating TLS context failed, using default socket factory {}", e);
+            return HttpsURLConnection.getDefaultSSLSocketFactory();
+        }
+    }
+
+    @Override
+    public HttpsURLConnection openConnection(String url) throws IOException {
+        URLConnection urlConnection = new URL(url).openConnection();
+        if (!(urlConnection instanceof HttpsURLConnection)) {
+            throw new IOException("Only https connections are supported: " + url);
+        }
+        HttpsURLConnection connection = (HttpsURLConnection) urlConnection;
+        connection.setSSLSocketFactory(sslSocketFactory);
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(@Nullable HttpsURLConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        InputStream input = null;
+        try {
+            try {
+                input = connection.getInputStream();
+            } catch (IOException e) {
+                // error responses are delivered by the error stream
+                input = connection.getErrorStream();
+            }
+            if (input == null) {
+                return;
+            }
+            byte[] buffer = new byte[4096];
+            int drained = 0;
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                drained += read;
+                if (drained > MAX_DRAIN_BYTES) {
+                    connection.disconnect();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // stream already closed or broken, nothing to reuse
+            logger.trace("Release connection failed {}", e.getMessage());
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    logger.trace("Closing response stream failed {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void discardConnection(@Nullable HttpsURLConnection connection) {
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+}
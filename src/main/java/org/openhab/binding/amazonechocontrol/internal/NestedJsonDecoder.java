@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * The {@link NestedJsonDecoder} reads a json document into a tree and decodes string values which contain an
+ * embedded json object or array (e.g. the network detail of the smart home api) into the tree while reading.
+ * Strings which are not valid json are kept as they are, so escaped characters in names survive.
+ * The response itself is not copied, but each embedded document is read into one string (the reader can not stream
+ * a string value) before it is parsed from that string. For the smart home api this is one copy of the network
+ * detail, which is the largest part of the response.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public final class NestedJsonDecoder {
+
+    private NestedJsonDecoder() {
+    }
+
+    public static JsonElement decode(JsonReader reader) throws JsonIOException, JsonSyntaxException {
+        reader.setLenient(true);
+        try {
+            return read(reader);
+        } catch (MalformedJsonException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    private static JsonElement read(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                JsonObject object = new JsonObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    object.add(reader.nextName(), read(reader));
+                }
+                reader.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JsonArray array = new JsonArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(read(reader));
+                }
+                reader.endArray();
+                return array;
+            case STRING:
+                return decodeString(reader.nextString());
+            case NUMBER:
+                return new JsonPrimitive(new BigDecimal(reader.nextString()));
+            case BOOLEAN:
+                return new JsonPrimitive(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return JsonNull.INSTANCE;
+            default:
+                throw new MalformedJsonException("Unexpected token " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
+    /**
+     * Parses a string value which contains a json document, the string is the only copy of the embedded document
+     */
+    private static JsonElement decodeString(String value) {
+        if (isEmbeddedJson(value)) {
+            // embedded documents are parsed strictly, a plain text in brackets stays a string
+            try (JsonReader nestedReader = new JsonReader(new StringReader(value))) {
+                JsonElement element = read(nestedReader);
+                if (nestedReader.peek() == JsonToken.END_DOCUMENT) {
+                    return element;
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                // not a json document
+            }
+        }
+        return new JsonPrimitive(value);
+    }
+
+    private static boolean isEmbeddedJson(String value) {
+        int length = value.length();
+        if (length < 2) {
+            return false;
+        }
+        char first = value.charAt(0);
+        char last = value.charAt(length - 1);
+        return (first == '{' && last == '}') || (first == '[' && last == ']');
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link PollingPolicy} calculates the polling interval of each entity (e.g. a thing) between a floor and a
+ * ceiling. Entities are polled with the floor interval while they are playing, for a short time after a command or
+ * push event and after a poll which has changed their state. Otherwise the interval is doubled with every poll until
+ * the ceiling is reached. Polling while playing can be switched off, if the state changes are pushed anyway.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class PollingPolicy {
+
+    private static class EntityState {
+        long interval;
+        long nextPoll;
+        long activeUntil;
+        boolean playing;
+
+        EntityState(long interval) {
+            this.interval = interval;
+        }
+    }
+
+    private final long floor;
+    private final long ceiling;
+    private final long activeTime;
+    private final Map<String, EntityState> entities = new HashMap<>();
+    private boolean pollWhilePlaying = true;
+
+    /**
+     * @param floor the shortest polling interval in milliseconds
+     * @param ceiling the longest polling interval in milliseconds
+     * @param activeTime the time in milliseconds after a command or push event, in which the entity is polled with the
+     *            floor interval
+     */
+    public PollingPolicy(long floor, long ceiling, long activeTime) {
+        this.floor = floor;
+        this.ceiling = Math.max(floor, ceiling);
+        this.activeTime = activeTime;
+    }
+
+    private EntityState getEntity(String key) {
+        EntityState entity = entities.get(key);
+        if (entity == null) {
+            // new entities are polled immediately
+            entity = new EntityState(floor);
+            entities.put(key, entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Called after a command or push event for the entity
+     */
+    public synchronized void notifyActivity(String key) {
+        long now = System.currentTimeMillis();
+        EntityState entity = getEntity(key);
+        entity.activeUntil = now + activeTime;
+        entity.interval = floor;
+        entity.nextPoll = Math.min(entity.nextPoll, now + floor);
+    }
+
+    public synchronized void setPlaying(String key, boolean playing) {
+        EntityState entity = getEntity(key);
+        if (playing && !entity.playing && pollWhilePlaying) {
+            entity.interval = floor;
+            entity.nextPoll = Math.min(entity.nextPoll, System.currentTimeMillis() + floor);
+        }
+        entity.playing = playing;
+    }
+
+    /**
+     * @param pollWhilePlaying false, if playing entities should not be polled with the floor interval, e.g. because
+     *            their state changes are pushed
+     */
+    public synchronized void setPollWhilePlaying(boolean pollWhilePlaying) {
+        if (pollWhilePlaying && !this.pollWhilePlaying) {
+            long nextPoll = System.currentTimeMillis() + floor;
+            for (EntityState entity : entities.values()) {
+                if (entity.playing) {
+                    entity.interval = floor;
+                    entity.nextPoll = Math.min(entity.nextPoll, nextPoll);
+                }
+            }
+        }
+        this.pollWhilePlaying = pollWhilePlaying;
+    }
+
+    public synchronized boolean isPollDue(String key) {
+        return System.currentTimeMillis() >= getEntity(key).nextPoll;
+    }
+
+    /**
+     * Called after the entity was polled
+     *
+     * @param changed true, if the poll has changed the state of the entity
+     * @return the new polling interval in milliseconds
+     */
+    public synchronized long polled(String key, boolean changed) {
+        long now = System.currentTimeMillis();
+        EntityState entity = getEntity(key);
+        if (changed || (entity.playing && pollWhilePlaying) || now < entity.activeUntil) {
+            entity.interval = floor;
+        } else {
+            entity.interval = Math.min(ceiling, entity.interval * 2);
+        }
+        entity.nextPoll = now + entity.interval;
+        return entity.interval;
+    }
+
+    public synchronized void remove(String key) {
+        entities.remove(key);
+    }
+}
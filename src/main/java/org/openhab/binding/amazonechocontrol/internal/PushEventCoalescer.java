@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PushEventCoalescer} decouples the push events from the thread which receives them. The events are
+ * handled on lanes (e.g. one per device): in arrival order within a lane, in parallel across lanes. Events of the same
+ * lane and type (e.g. command) which arrive within the window are merged, only the latest one is delivered when the
+ * window of the first one ends. Events without a type are delivered as soon as possible. If too many events are
+ * waiting or running, new events are dropped and counted.
+ *
+ * A merged event takes the place of the first event of its key, so within a lane it is delivered before events of
+ * other types which arrived in between (A1, B, A2 is delivered as A2, B). Only the order of different types changes,
+ * which the handlers of the push events do not depend on: each type updates its own part of the device state.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class PushEventCoalescer<T> {
+
+    @FunctionalInterface
+    public interface IKeyProvider<T> {
+        @Nullable
+        String getKey(T event);
+    }
+
+    private static class PendingEvent<T> {
+        final long deadline;
+        final String lane;
+        T event;
+
+        PendingEvent(long deadline, String lane, T event) {
+            this.deadline = deadline;
+            this.lane = lane;
+            this.event = event;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PushEventCoalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final SerialLaneExecutor lanes;
+    private final long window;
+    private final int maxPending;
+    private final IKeyProvider<T> laneProvider;
+    private final IKeyProvider<T> typeProvider;
+    private final Consumer<T> consumer;
+
+    // in arrival order of the first event of a key, so the deadlines are ascending
+    private final LinkedHashMap<String, PendingEvent<T>> pendingEvents = new LinkedHashMap<>();
+    private int pendingCount;
+    private boolean closed;
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final AtomicLong mergedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * @param scheduler the scheduler for the end of the windows
+     * @param executor the executor which runs the lanes, at most maxParallelLanes at the same time
+     */
+    public PushEventCoalescer(ScheduledExecutorService scheduler, Executor executor, int maxParallelLanes, long window,
+            int maxPending, IKeyProvider<T> laneProvider, IKeyProvider<T> typeProvider, Consumer<T> consumer) {
+        this.scheduler = scheduler;
+        this.lanes = new SerialLaneExecutor(executor, maxParallelLanes, task -> discarded());
+        this.window = window;
+        this.maxPending = maxPending;
+        this.laneProvider = laneProvider;
+        this.typeProvider = typeProvider;
+        this.consumer = consumer;
+    }
+
+    public void submit(T event) {
+        receivedEvents.incrementAndGet();
+        String lane = laneProvider.getKey(event);
+        if (lane == null) {
+            lane = "";
+        }
+        String type = typeProvider.getKey(event);
+        String key = type != null ? lane + "|" + type : null;
+        synchronized (pendingEvents) {
+            if (closed) {
+                return;
+            }
+            if (key != null) {
+                PendingEvent<T> pendingEvent = pendingEvents.get(key);
+                if (pendingEvent != null) {
+                    // superseded, the latest event is delivered when the window of the first one ends
+                    pendingEvent.event = event;
+                    mergedEvents.incrementAndGet();
+                    return;
+                }
+            }
+            if (pendingCount >= maxPending) {
+                droppedEvents.incrementAndGet();
+                logger.debug("Too many pending push events, event dropped");
+                return;
+            }
+            pendingCount++;
+            if (key == null) {
+                dispatch(lane, event);
+                return;
+            }
+            pendingEvents.put(key, new PendingEvent<>(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(window),
+                    lane, event));
+        }
+        try {
+            scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            synchronized (pendingEvents) {
+                if (pendingEvents.remove(key) != null) {
+                    pendingCount--;
+                    droppedEvents.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatches all events whose window has ended. The events are added to their lanes while holding the lock, so
+     * the order within a lane is the arrival order even if several flushes run at the same time.
+     */
+    private void flush() {
+        long now = System.nanoTime();
+        synchronized (pendingEvents) {
+            Iterator<PendingEvent<T>> iterator = pendingEvents.values().iterator();
+            while (iterator.hasNext()) {
+                PendingEvent<T> pendingEvent = iterator.next();
+                if (pendingEvent.deadline - now > 0) {
+                    break;
+                }
+                iterator.remove();
+                dispatch(pendingEvent.lane, pendingEvent.event);
+            }
+        }
+    }
+
+    private void dispatch(String lane, T event) {
+        try {
+            lanes.execute(lane, () -> deliver(event));
+        } catch (RuntimeException e) {
+            // should never happen, but the other due events must still be dispatched
+            logger.warn("dispatching of push event fails: {}", e);
+            discarded();
+        }
+    }
+
+    /**
+     * Releases the pending slot of an event which is not delivered, e.g. because the executor rejected it
+     */
+    private void discarded() {
+        synchronized (pendingEvents) {
+            pendingCount--;
+        }
+        droppedEvents.incrementAndGet();
+    }
+
+    private void deliver(T event) {
+        try {
+            synchronized (pendingEvents) {
+                if (closed) {
+                    return;
+                }
+            }
+            deliveredEvents.incrementAndGet();
+            consumer.accept(event);
+        } finally {
+            synchronized (pendingEvents) {
+                pendingCount--;
+            }
+        }
+    }
+
+    /**
+     * Discards all pending events, events submitted afterwards are ignored
+     */
+    public void close() {
+        synchronized (pendingEvents) {
+            closed = true;
+            pendingEvents.clear();
+        }
+    }
+
+    /**
+     * Adds the event counters to the statistics
+     */
+    public void appendStatistics(Map<String, Long> statistics) {
+        statistics.put("Push events received", receivedEvents.get());
+        statistics.put("Push events delivered", deliveredEvents.get());
+        statistics.put("Push events merged", mergedEvents.get());
+        statistics.put("Push events dropped (queue full or rejected)", droppedEvents.get());
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ReconnectBackoff} calculates the delays between the reconnect attempts of a connection and counts the
+ * disconnects. The first attempt after a disconnect is immediate, then the delay is doubled with every attempt until
+ * the ceiling is reached. A random jitter of up to half of the delay avoids that all accounts reconnect at the same
+ * time after a network outage.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ReconnectBackoff {
+
+    private final long floor;
+    private final long ceiling;
+
+    private int attempts;
+    private boolean connected;
+    private long disconnectedSince;
+    private long disconnects;
+    private long reconnects;
+    private long disconnectedTime;
+
+    /**
+     * @param floor the delay in milliseconds before the second attempt
+     * @param ceiling the longest delay in milliseconds
+     */
+    public ReconnectBackoff(long floor, long ceiling) {
+        this.floor = floor;
+        this.ceiling = Math.max(floor, ceiling);
+        this.disconnectedSince = System.currentTimeMillis();
+    }
+
+    /**
+     * Called when the connection is closed unexpectedly
+     *
+     * @return true, if the connection was connected before
+     */
+    public synchronized boolean disconnected() {
+        if (!connected) {
+            return false;
+        }
+        connected = false;
+        disconnects++;
+        disconnectedSince = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Called when the connection is established
+     *
+     * @return true, if this is a reconnect after a disconnect
+     */
+    public synchronized boolean connected() {
+        if (connected) {
+            return false;
+        }
+        connected = true;
+        attempts = 0;
+        if (disconnects == 0) {
+            return false;
+        }
+        reconnects++;
+        disconnectedTime += System.currentTimeMillis() - disconnectedSince;
+        return true;
+    }
+
+    /**
+     * Returns the delay in milliseconds before the next attempt
+     */
+    public synchronized long nextDelay() {
+        int attempt = attempts++;
+        if (attempt == 0) {
+            return 0;
+        }
+        long delay = ceiling;
+        if (attempt <= 30) {
+            delay = Math.min(ceiling, floor << (attempt - 1));
+        }
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Adds the disconnect counters to the statistics
+     */
+    public synchronized void appendStatistics(Map<String, Long> statistics) {
+        long currentDisconnectedTime = disconnectedTime;
+        if (!connected && disconnects > 0) {
+            currentDisconnectedTime += System.currentTimeMillis() - disconnectedSince;
+        }
+        statistics.put("Web socket disconnects", disconnects);
+        statistics.put("Web socket reconnects", reconnects);
+        statistics.put("Web socket disconnected time (s)", currentDisconnectedTime / 1000);
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link RequestCoalescer} combines concurrent identical requests. The first caller executes the request, all
+ * callers which request the same key while it is running wait for and share its result (or its exception). The wait
+ * is bounded, so a hanging request does not block the waiting callers forever.
+ *
+ * The result is the same instance for all callers, which may use it on different threads. It is read-only: no caller
+ * may change it, a caller which needs a changed version must make its own copy.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class RequestCoalescer {
+
+    @FunctionalInterface
+    public interface IRequest<T> {
+        T execute() throws IOException, URISyntaxException;
+    }
+
+    // longer than connect and read timeout of a request, including a retry
+    private static final long WAIT_TIMEOUT = 120; // seconds
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> runningRequests = new ConcurrentHashMap<>();
+    private final AtomicLong executedRequests = new AtomicLong();
+    private final AtomicLong savedRequests = new AtomicLong();
+
+    public <T> T execute(String key, IRequest<T> request) throws IOException, URISyntaxException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> runningRequest = runningRequests.putIfAbsent(key, future);
+        if (runningRequest != null) {
+            savedRequests.incrementAndGet();
+            return waitForResult(runningRequest);
+        }
+        executedRequests.incrementAndGet();
+        try {
+            T result = request.execute();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // also errors, otherwise the waiting callers would never be released
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            runningRequests.remove(key, future);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T waitForResult(CompletableFuture<Object> runningRequest) throws IOException, URISyntaxException {
+        try {
+            return (T) runningRequest.get(WAIT_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for running request interrupted");
+        } catch (TimeoutException e) {
+            throw new IOException("Waiting for running request timed out", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    public long getExecutedRequests() {
+        return executedRequests.get();
+    }
+
+    public long getSavedRequests() {
+        return savedRequests.get();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link ResponseCache} caches parsed responses of rarely changing endpoints. Each endpoint has its own time to
+ * live and maximum number of entries (e.g. one entry per device for the notification sounds).
+ *
+ * A hit returns the cached instance itself, which is shared by all callers. The cached responses are read-only: no
+ * caller may change them, a caller which needs a changed version must make its own copy.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ResponseCache {
+
+    private static class CacheEntry {
+        final Object value;
+        final long expires;
+
+        CacheEntry(Object value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+
+    private static class Endpoint {
+        final long timeToLive;
+        final Map<String, CacheEntry> entries;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+
+        Endpoint(long timeToLive, int maxEntries) {
+            this.timeToLive = timeToLive;
+            this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, CacheEntry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Enables caching for an endpoint
+     *
+     * @param endpoint name of the endpoint
+     * @param timeToLive time to live of an entry in milliseconds
+     * @param maxEntries maximum number of entries of this endpoint
+     */
+    public synchronized void addEndpoint(String endpoint, long timeToLive, int maxEntries) {
+        endpoints.put(endpoint, new Endpoint(timeToLive, maxEntries));
+    }
+
+    /**
+     * Returns the cached response or null, if there is no valid entry. The response is shared and must not be changed.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> @Nullable T get(String endpoint, String key) {
+        Endpoint cache = endpoints.get(endpoint);
+        if (cache == null) {
+            return null;
+        }
+        CacheEntry entry = cache.entries.get(key);
+        if (entry == null || entry.expires <= System.currentTimeMillis()) {
+            if (entry != null) {
+                cache.entries.remove(key);
+            }
+            cache.misses.incrementAndGet();
+            return null;
+        }
+        cache.hits.incrementAndGet();
+        return (T) entry.value;
+    }
+
+    /**
+     * Caches the response, it must not be changed afterwards
+     */
+    public synchronized void put(String endpoint, String key, Object value) {
+        Endpoint cache = endpoints.get(endpoint);
+        if (cache != null) {
+            cache.entries.put(key, new CacheEntry(value, System.currentTimeMillis() + cache.timeToLive));
+        }
+    }
+
+    public synchronized void invalidate(String endpoint) {
+        Endpoint cache = endpoints.get(endpoint);
+        if (cache != null) {
+            cache.entries.clear();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (Endpoint cache : endpoints.values()) {
+            cache.entries.clear();
+        }
+    }
+
+    /**
+     * Adds the hit and miss counters of all endpoints to the statistics
+     */
+    public synchronized void appendStatistics(Map<String, Long> statistics) {
+        long hits = 0;
+        long misses = 0;
+        statistics.put("Cache hits", hits);
+        statistics.put("Cache misses", misses);
+        for (Map.Entry<String, Endpoint> endpoint : endpoints.entrySet()) {
+            long endpointHits = endpoint.getValue().hits.get();
+            long endpointMisses = endpoint.getValue().misses.get();
+            statistics.put("Cache " + endpoint.getKey() + " hits", endpointHits);
+            statistics.put("Cache " + endpoint.getKey() + " misses", endpointMisses);
+            hits += endpointHits;
+            misses += endpointMisses;
+        }
+        statistics.put("Cache hits", hits);
+        statistics.put("Cache misses", misses);
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SerialLaneExecutor} runs tasks on an executor, tasks of the same lane (e.g. the same device) one after
+ * the other in the order they are added, tasks of different lanes in parallel. A lane occupies a thread only for
+ * one task at a time, so a busy lane does not starve the others. At most maxParallelLanes tasks run at the same
+ * time, so a shared executor is not occupied by one user; waiting lanes take turns.
+ *
+ * If the executor rejects a task (e.g. because it is shut down), the queued tasks of the lane are discarded and handed
+ * to the discarded task handler, so the owner of the tasks can release what it holds for them.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class SerialLaneExecutor {
+
+    private final Logger logger = LoggerFactory.getLogger(SerialLaneExecutor.class);
+
+    private final Executor executor;
+    private final int maxParallelLanes;
+    private final Consumer<Runnable> discardedTaskHandler;
+    // the queued tasks of all lanes which have a running or waiting task
+    private final Map<String, ArrayDeque<Runnable>> lanes = new HashMap<>();
+    // the lanes which have queued tasks but no running task, in the order they will run
+    private final ArrayDeque<String> waitingLanes = new ArrayDeque<>();
+    private int runningLanes;
+
+    public SerialLaneExecutor(Executor executor, int maxParallelLanes, Consumer<Runnable> discardedTaskHandler) {
+        this.executor = executor;
+        this.maxParallelLanes = Math.max(1, maxParallelLanes);
+        this.discardedTaskHandler = discardedTaskHandler;
+    }
+
+    public void execute(String lane, Runnable task) {
+        synchronized (lanes) {
+            ArrayDeque<Runnable> queue = lanes.get(lane);
+            if (queue != null) {
+                queue.add(task);
+                return;
+            }
+            queue = new ArrayDeque<>();
+            lanes.put(lane, queue);
+            if (runningLanes >= maxParallelLanes) {
+                queue.add(task);
+                waitingLanes.add(lane);
+                return;
+            }
+            runningLanes++;
+        }
+        submit(lane, task);
+    }
+
+    private void submit(String lane, Runnable task) {
+        @Nullable
+        String nextLane = lane;
+        @Nullable
+        Runnable next = task;
+        while (nextLane != null && next != null) {
+            try {
+                String runLane = nextLane;
+                Runnable runTask = next;
+                executor.execute(() -> run(runLane, runTask));
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.debug("Executor rejected the task, tasks of lane {} discarded", nextLane);
+                List<Runnable> discardedTasks = new ArrayList<>();
+                discardedTasks.add(next);
+                synchronized (lanes) {
+                    ArrayDeque<Runnable> queue = lanes.remove(nextLane);
+                    if (queue != null) {
+                        discardedTasks.addAll(queue);
+                    }
+                    // the slot of the lane goes to the next waiting lane, otherwise the waiting lanes would never run
+                    nextLane = waitingLanes.poll();
+                    next = pollWaitingLaneTask(nextLane);
+                }
+                for (Runnable discardedTask : discardedTasks) {
+                    discardedTaskHandler.accept(discardedTask);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the next task of a waiting lane which takes the slot of a finished lane, or releases the slot if there
+     * is no such task. Must be called while holding the lock.
+     */
+    private @Nullable Runnable pollWaitingLaneTask(@Nullable String nextLane) {
+        if (nextLane == null) {
+            runningLanes--;
+            return null;
+        }
+        ArrayDeque<Runnable> nextQueue = lanes.get(nextLane);
+        Runnable next = nextQueue != null ? nextQueue.poll() : null;
+        if (next == null) {
+            // a waiting lane always has a task, just for safety
+            lanes.remove(nextLane);
+            runningLanes--;
+        }
+        return next;
+    }
+
+    private void run(String lane, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // should never happen, but the following tasks of the lane must still run
+            logger.warn("Task of lane {} fails: {}", lane, e);
+        } finally {
+            // also after an error, otherwise the lane would never run a task again
+            @Nullable
+            String nextLane;
+            @Nullable
+            Runnable next;
+            synchronized (lanes) {
+                ArrayDeque<Runnable> queue = lanes.get(lane);
+                if (queue == null || queue.isEmpty()) {
+                    lanes.remove(lane);
+                } else {
+                    // behind the lanes which are already waiting
+                    waitingLanes.add(lane);
+                }
+                nextLane = waitingLanes.poll();
+                next = pollWaitingLaneTask(nextLane);
+            }
+            if (nextLane != null && next != null) {
+                submit(nextLane, next);
+            }
+        }
+    }
+}
@@ -19,18 +19,18 @@ import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketListener;
 import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
@@ -54,25 +54,30 @@ import com.google.gson.JsonSyntaxException;
 public class WebSocketConnection {
     private final Logger logger = LoggerFactory.getLogger(WebSocketConnection.class);
     private final Gson gson = new Gson();
+    // shared by all connections, started and stopped by the handler factory
     WebSocketClient webSocketClient;
     @Nullable
+    Future<Session> sessionFuture;
+    @Nullable
     Session session;
+    // shared by the connections of all accounts, so reconnects do not create new threads
+    private final ScheduledExecutorService scheduler;
     @Nullable
-    Timer pingTimer;
+    ScheduledFuture<?> pingTimer;
     @Nullable
-    Timer pongTimeoutTimer;
+    ScheduledFuture<?> pongTimeoutTimer;
     Listener listener;
-    boolean closed;
+    volatile boolean closed;
     IWebSocketCommandHandler webSocketCommandHandler;
 
     public WebSocketConnection(String amazonSite, List<HttpCookie> sessionCookies,
-            IWebSocketCommandHandler webSocketCommandHandler) throws IOException {
+            IWebSocketCommandHandler webSocketCommandHandler, ScheduledExecutorService scheduler,
+            WebSocketClient webSocketClient) throws IOException {
         this.webSocketCommandHandler = webSocketCommandHandler;
+        this.scheduler = scheduler;
+        this.webSocketClient = webSocketClient;
         listener = new Listener();
 
-        SslContextFactory sslContextFactory = new SslContextFactory();
-        webSocketClient = new WebSocketClient(sslContextFactory);
-
         try {
             String host;
             if (StringUtils.equalsIgnoreCase(amazonSite, "amazon.com")) {
@@ -98,11 +103,8 @@ public class WebSocketConnection {
 
             uri = new URI("wss://" + host + "/?x-amz-device-type=ALEGCNGL9K0HM&x-amz-device-serial=" + deviceSerial);
 
-            try {
-                webSocketClient.start();
-            } catch (Exception e) {
-                logger.warn("Web socket start failed: {}", e);
-                throw new IOException("Web socket start failed");
+            if (!webSocketClient.isStarted()) {
+                throw new IOException("Web socket client not started");
             }
 
             ClientUpgradeRequest request = new ClientUpgradeRequest();
@@ -113,8 +115,22 @@ public class WebSocketConnection {
 
             request.setCookies(cookiesForWs);
 
+            // also bounds the time until the session is opened
             initPongTimeoutTimer();
-            webSocketClient.connect(listener, uri, request);
+            Future<Session> sessionFuture;
+            try {
+                sessionFuture = webSocketClient.connect(listener, uri, request);
+            } catch (IOException | RuntimeException e) {
+                // the caller handles the failure, the timer must not close and report this connection later
+                synchronized (this) {
+                    closed = true;
+                }
+                clearPongTimeoutTimer();
+                throw e;
+            }
+            synchronized (this) {
+                this.sessionFuture = sessionFuture;
+            }
 
         } catch (URISyntaxException e) {
             logger.debug("Initialize web socket failed: {}", e);
@@ -122,17 +138,21 @@ public class WebSocketConnection {
     }
 
     private void setSession(Session session) {
-        this.session = session;
+        synchronized (this) {
+            if (closed) {
+                // closed while connecting
+                session.close();
+                return;
+            }
+            this.session = session;
+        }
         logger.debug("Web Socket session started");
-        Timer pingTimer = new Timer();
-        this.pingTimer = pingTimer;
-        pingTimer.schedule(new TimerTask() {
-
-            @Override
-            public void run() {
-                listener.sendPing();
+        synchronized (this) {
+            if (!closed) {
+                pingTimer = scheduler.scheduleWithFixedDelay(listener::sendPing, 180, 180, TimeUnit.SECONDS);
             }
-        }, 180000, 180000);
+        }
+        webSocketCommandHandler.webSocketConnectionOpened(this);
     }
 
     public boolean isClosed() {
@@ -140,10 +160,20 @@ public class WebSocketConnection {
     }
 
     public void close() {
-        closed = true;
-        Timer pingTimer = this.pingTimer;
-        if (pingTimer != null) {
-            pingTimer.cancel();
+        boolean wasClosed;
+        synchronized (this) {
+            wasClosed = closed;
+            closed = true;
+            ScheduledFuture<?> pingTimer = this.pingTimer;
+            this.pingTimer = null;
+            if (pingTimer != null) {
+                pingTimer.cancel(false);
+            }
+            Future<Session> sessionFuture = this.sessionFuture;
+            this.sessionFuture = null;
+            if (sessionFuture != null && !sessionFuture.isDone()) {
+                sessionFuture.cancel(true);
+            }
         }
         clearPongTimeoutTimer();
         Session session = this.session;
@@ -151,32 +181,32 @@ public class WebSocketConnection {
         if (session != null) {
             session.close();
         }
-        webSocketClient.destroy();
+        if (!wasClosed) {
+            webSocketCommandHandler.webSocketConnectionClosed(this);
+        }
     }
 
-    void clearPongTimeoutTimer() {
-        Timer pongTimeoutTimer = this.pongTimeoutTimer;
+    synchronized void clearPongTimeoutTimer() {
+        ScheduledFuture<?> pongTimeoutTimer = this.pongTimeoutTimer;
         this.pongTimeoutTimer = null;
         if (pongTimeoutTimer != null) {
-            pongTimeoutTimer.cancel();
+            pongTimeoutTimer.cancel(false);
         }
     }
 
-    void initPongTimeoutTimer() {
+    synchronized void initPongTimeoutTimer() {
         clearPongTimeoutTimer();
-        Timer pongTimeoutTimer = new Timer();
-        this.pongTimeoutTimer = pongTimeoutTimer;
-        pongTimeoutTimer.schedule(new TimerTask() {
-
-            @Override
-            public void run() {
-                close();
-            }
-        }, 60000);
+        if (!closed) {
+            pongTimeoutTimer = scheduler.schedule(this::close, 60, TimeUnit.SECONDS);
+        }
     }
 
     class Listener implements WebSocketListener {
         int msgCounter = -1;
+        // reused for all received frames, the frames of a session are received one after the other
+        final WebSocketFrame frame = new WebSocketFrame();
+        // the ping is sent from the scheduler, so the use of the encoder and its buffer is synchronized
+        final WebSocketFrameEncoder encoder = new WebSocketFrameEncoder();
         int messageId;
 
         Listener() {
@@ -192,11 +222,15 @@ public class WebSocketConnection {
         }
 
         void sendMessage(byte[] buffer) {
+            sendMessage(ByteBuffer.wrap(buffer));
+        }
+
+        void sendMessage(ByteBuffer buffer) {
             try {
-                logger.debug("Send message with length {}", buffer.length);
+                logger.debug("Send message with length {}", buffer.remaining());
                 Session session = WebSocketConnection.this.session;
                 if (session != null) {
-                    session.getRemote().sendBytes(ByteBuffer.wrap(buffer));
+                    session.getRemote().sendBytes(buffer);
                 }
             } catch (IOException e) {
                 logger.debug("Send message failed", e);
@@ -213,141 +247,15 @@ public class WebSocketConnection {
             return bytes;
         }
 
-        long readHex(byte[] data, int index, int length) {
-            String str = readString(data, index, length);
-            if (str.startsWith("0x")) {
-                str = str.substring(2);
-            }
-            return Long.parseLong(str, 16);
-        }
-
-        String readString(byte[] data, int index, int length) {
-            return new String(data, index, length, StandardCharsets.UTF_8);
-        }
-
-        class Message {
-            String service = "";
-            Content content = new Content();
-            String contentTune = "";
-            String messageType = "";
-            long channel;
-            long checksum;
-            long messageId;
-            String moreFlag = "";
-            long seq;
-        }
-
-        class Content {
-            String messageType = "";
-            String protocolVersion = "";
-            String connectionUUID = "";
-            long established;
-            long timestampINI;
-            long timestampACK;
-            String subMessageType = "";
-            long channel;
-            String destinationIdentityUrn = "";
-            String deviceIdentityUrn = "";
-            @Nullable
-            String payload;
-            byte[] payloadData = new byte[0];
-            @Nullable
-            JsonPushCommand pushCommand;
-        }
-
-        Message parseIncomingMessage(byte[] data) {
-            int idx = 0;
-            Message message = new Message();
-            message.service = readString(data, data.length - 4, 4);
-
-            if (message.service.equals("TUNE")) {
-                message.checksum = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-                int contentLength = (int) readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-                message.contentTune = readString(data, idx, contentLength - 4 - idx);
-            } else if (message.service.equals("FABE")) {
-                message.messageType = readString(data, idx, 3);
-                idx += 4;
-                message.channel = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-                message.messageId = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-                message.moreFlag = readString(data, idx, 1);
-                idx += 2; // 1 + delimiter;
-                message.seq = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-                message.checksum = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-
-                // currently not used: long contentLength = readHex(data, idx, 10);
-                idx += 11; // 10 + delimiter;
-
-                message.content.messageType = readString(data, idx, 3);
-                idx += 4;
-
-                if (message.channel == 0x361) { // GW_HANDSHAKE_CHANNEL
-                    if (message.content.messageType.equals("ACK")) {
-                        int length = (int) readHex(data, idx, 10);
-                        idx += 11; // 10 + delimiter;
-                        message.content.protocolVersion = readString(data, idx, length);
-                        idx += length + 1;
-                        length = (int) readHex(data, idx, 10);
-                        idx += 11; // 10 + delimiter;
-                        message.content.connectionUUID = readString(data, idx, length);
-                        idx += length + 1;
-                        message.content.established = readHex(data, idx, 10);
-                        idx += 11; // 10 + delimiter;
-                        message.content.timestampINI = readHex(data, idx, 18);
-                        idx += 19; // 18 + delimiter;
-                        message.content.timestampACK = readHex(data, idx, 18);
-                        idx += 19; // 18 + delimiter;
-                    }
-                } else if (message.channel == 0x362) { // GW_CHANNEL
-                    if (message.content.messageType.equals("GWM")) {
-                        message.content.subMessageType = readString(data, idx, 3);
-                        idx += 4;
-                        message.content.channel = readHex(data, idx, 10);
-                        idx += 11; // 10 + delimiter;
-
-                        if (message.content.channel == 0xb479) { // DEE_WEBSITE_MESSAGING
-                            int length = (int) readHex(data, idx, 10);
-                            idx += 11; // 10 + delimiter;
-                            message.content.destinationIdentityUrn = readString(data, idx, length);
-                            idx += length + 1;
-
-                            length = (int) readHex(data, idx, 10);
-                            idx += 11; // 10 + delimiter;
-                            String idData = readString(data, idx, length);
-                            idx += length + 1;
-
-                            String[] idDataElements = idData.split(" ", 2);
-                            message.content.deviceIdentityUrn = idDataElements[0];
-                            String payload = null;
-                            if (idDataElements.length == 2) {
-                                payload = idDataElements[1];
-                            }
-                            if (message.content.payload == null) {
-                                payload = readString(data, idx, data.length - 4 - idx);
-                            }
-                            message.content.payload = payload;
-                            if (StringUtils.isNotEmpty(payload)) {
-                                try {
-                                    message.content.pushCommand = gson.fromJson(message.content.payload,
-                                            JsonPushCommand.class);
-                                } catch (JsonSyntaxException e) {
-                                    logger.info("Parsing json failed {}", e);
-                                    logger.info("Illegal json: {}", payload);
-                                }
-                            }
-                        }
-                    }
-                } else if (message.channel == 0x65) { // CHANNEL_FOR_HEARTBEAT
-                    idx -= 1; // no delimiter!
-                    message.content.payloadData = Arrays.copyOfRange(data, idx, data.length - 4);
-                }
+        @Nullable
+        JsonPushCommand parsePushCommand(String payload) {
+            try {
+                return gson.fromJson(payload, JsonPushCommand.class);
+            } catch (JsonSyntaxException e) {
+                logger.info("Parsing json failed {}", e);
+                logger.info("Illegal json: {}", payload);
+                return null;
             }
-            return message;
         }
 
         @Override
@@ -355,7 +263,7 @@ public class WebSocketConnection {
             if (session != null) {
                 this.msgCounter = -1;
                 setSession(session);
-                sendMessage("0x99d4f71a 0x0000001d A:HTUNE");
+                sendMessage(WebSocketFrameEncoder.TUNE_INIT);
             } else {
                 logger.debug("Web Socket connect without session");
             }
@@ -368,33 +276,30 @@ public class WebSocketConnection {
             }
             this.msgCounter++;
             if (this.msgCounter == 0) {
-                sendMessage(
-                        "0xa6f6a951 0x0000009c {\"protocolName\":\"A:H\",\"parameters\":{\"AlphaProtocolHandler.receiveWindowSize\":\"16\",\"AlphaProtocolHandler.maxFragmentSize\":\"16000\"}}TUNE");
-                sendMessage(encodeGWHandshake());
-
+                sendMessage(WebSocketFrameEncoder.TUNE_PROTOCOL);
+                synchronized (encoder) {
+                    sendMessage(encoder.encodeGWHandshake(++messageId, UUID.randomUUID(), new Date().getTime()));
+                }
             } else if (this.msgCounter == 1) {
-                sendMessage(encodeGWRegister());
+                synchronized (encoder) {
+                    sendMessage(encoder.encodeGWRegister(++messageId));
+                }
                 sendPing();
             } else {
-                byte[] buffer = data;
-                if (offset > 0 || len != buffer.length) {
-                    buffer = Arrays.copyOfRange(data, offset, offset + len);
-                }
                 try {
-                    Message message = parseIncomingMessage(buffer);
-                    if (message.service.equals("FABE") && message.content.messageType.equals("PON")
-                            && message.content.payloadData.length > 0) {
-
+                    WebSocketFrame frame = this.frame.parse(data, offset, len);
+                    if (frame.isPong()) {
                         logger.debug("Pong received");
                         WebSocketConnection.this.clearPongTimeoutTimer();
                         return;
-                    } else {
-                        JsonPushCommand pushCommand = message.content.pushCommand;
-                        logger.debug("Message received: {}", message.content.payload);
+                    }
+                    String payload = frame.getPushPayload();
+                    logger.debug("Message received: {}", payload);
+                    if (payload != null) {
+                        JsonPushCommand pushCommand = parsePushCommand(payload);
                         if (pushCommand != null) {
                             webSocketCommandHandler.webSocketCommandReceived(pushCommand);
                         }
-                        return;
                     }
                 } catch (Exception e) {
                     logger.debug("Handling of push notification failed {}", e);
@@ -424,174 +329,9 @@ public class WebSocketConnection {
         public void sendPing() {
             logger.debug("Send Ping");
             WebSocketConnection.this.initPongTimeoutTimer();
-            sendMessage(encodePing());
-        }
-
-        String encodeNumber(long val) {
-            return encodeNumber(val, 8);
-        }
-
-        String encodeNumber(long val, int len) {
-            String str = Long.toHexString(val);
-            if (str.length() > len) {
-                str = str.substring(str.length() - len);
-            }
-            while (str.length() < len) {
-                str = '0' + str;
-            }
-            return "0x" + str;
-        }
-
-        long computeBits(long input, long len) {
-            long lenCounter = len;
-            long value;
-            for (value = toUnsignedInt(input); 0 != lenCounter && 0 != value;) {
-                value = (long) Math.floor(value / 2);
-                lenCounter--;
-            }
-            return value;
-        }
-
-        long toUnsignedInt(long value) {
-
-            long result = value;
-            if (0 > value) {
-                result = 4294967295L + value + 1;
-            }
-            return result;
-        }
-
-        int computeChecksum(byte[] data, int exclusionStart, int exclusionEnd) {
-            if (exclusionEnd < exclusionStart) {
-                return 0;
-            }
-            long overflow;
-            long sum;
-            int index;
-            for (overflow = 0, sum = 0, index = 0; index < data.length; index++) {
-                if (index != exclusionStart) {
-                    sum += toUnsignedInt((data[index] & 0xFF) << ((index & 3 ^ 3) << 3));
-                    overflow += computeBits(sum, 32);
-                    sum = toUnsignedInt((int) sum & (int) 4294967295L);
-
-                } else {
-                    index = exclusionEnd - 1;
-                }
-            }
-            while (overflow != 0) {
-                sum += overflow;
-                overflow = computeBits(sum, 32);
-                sum = (int) sum & (int) 4294967295L;
-            }
-            long value = toUnsignedInt(sum);
-            return (int) value;
-        }
-
-        byte[] encodeGWHandshake() {
-            // pubrelBuf = new Buffer('MSG 0x00000361 0x0e414e45 f 0x00000001 0xd7c62f29 0x0000009b INI 0x00000003 1.0
-            // 0x00000024 ff1c4525-c036-4942-bf6c-a098755ac82f 0x00000164d106ce6b END FABE');
-            this.messageId++;
-            String msg = "MSG 0x00000361 "; // Message-type and Channel = GW_HANDSHAKE_CHANNEL;
-            msg += this.encodeNumber(this.messageId) + " f 0x00000001 ";
-            int checkSumStart = msg.length();
-            msg += "0x00000000 "; // Checksum!
-            int checkSumEnd = msg.length();
-            msg += "0x0000009b "; // length content
-            msg += "INI 0x00000003 1.0 0x00000024 "; // content part 1
-            msg += UUID.randomUUID().toString();
-            msg += ' ';
-            msg += this.encodeNumber(new Date().getTime(), 16);
-            msg += " END FABE";
-            // msg = "MSG 0x00000361 0x0e414e45 f 0x00000001 0xd7c62f29 0x0000009b INI 0x00000003 1.0 0x00000024
-            // ff1c4525-c036-4942-bf6c-a098755ac82f 0x00000164d106ce6b END FABE";
-            byte[] completeBuffer = msg.getBytes(StandardCharsets.US_ASCII);
-
-            int checksum = this.computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
-            String checksumHex = encodeNumber(checksum);
-            byte[] checksumBuf = checksumHex.getBytes(StandardCharsets.US_ASCII);
-            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
-
-            return completeBuffer;
-        }
-
-        byte[] encodeGWRegister() {
-            // pubrelBuf = new Buffer('MSG 0x00000362 0x0e414e46 f 0x00000001 0xf904b9f5 0x00000109 GWM MSG 0x0000b479
-            // 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 0x00000041
-            // urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService
-            // {"command":"REGISTER_CONNECTION"}FABE');
-            this.messageId++;
-            String msg = "MSG 0x00000362 "; // Message-type and Channel = GW_CHANNEL;
-            msg += this.encodeNumber(this.messageId) + " f 0x00000001 ";
-            int checkSumStart = msg.length();
-            msg += "0x00000000 "; // Checksum!
-            int checkSumEnd = msg.length();
-            msg += "0x00000109 "; // length content
-            msg += "GWM MSG 0x0000b479 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 0x00000041 urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService {\"command\":\"REGISTER_CONNECTION\"}FABE";
-
-            byte[] completeBuffer = msg.getBytes(StandardCharsets.US_ASCII);
-
-            int checksum = this.computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
-
-            String checksumHex = encodeNumber(checksum);
-            byte[] checksumBuf = checksumHex.getBytes(StandardCharsets.US_ASCII);
-            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
-
-            String test = readString(completeBuffer, 0, completeBuffer.length);
-            test.toString();
-            return completeBuffer;
-        }
-
-        void encode(byte[] data, long b, int offset, int len) {
-            for (int index = 0; index < len; index++) {
-                data[index + offset] = (byte) (b >> 8 * (len - 1 - index) & 255);
+            synchronized (encoder) {
+                sendMessage(encoder.encodePing(++messageId, new Date().getTime()));
             }
         }
-
-        byte[] encodePing() {
-
-            // MSG 0x00000065 0x0e414e47 f 0x00000001 0xbc2fbb5f 0x00000062 PIN    � ��� ��    R e g u l a rFABE
-            this.messageId++;
-            String msg = "MSG 0x00000065 "; // Message-type and Channel = CHANNEL_FOR_HEARTBEAT;
-            msg += this.encodeNumber(this.messageId) + " f 0x00000001 ";
-            int checkSumStart = msg.length();
-            msg += "0x00000000 "; // Checksum!
-            int checkSumEnd = msg.length();
-            msg += "0x00000062 "; // length content
-
-            byte[] completeBuffer = new byte[0x62];
-            byte[] startBuffer = msg.getBytes(StandardCharsets.US_ASCII);
-
-            System.arraycopy(startBuffer, 0, completeBuffer, 0, startBuffer.length);
-
-            byte[] header = "PIN".getBytes(StandardCharsets.US_ASCII);
-            byte[] payload = "Regular".getBytes(StandardCharsets.US_ASCII); // g = h.length
-            byte[] bufferPing = new byte[header.length + 4 + 8 + 4 + 2 * payload.length];
-            int idx = 0;
-            for (int q = 0; q < header.length; q++) {
-                bufferPing[q] = header[q];
-            }
-            idx += header.length;
-            encode(bufferPing, 0, idx, 4);
-            idx += 4;
-            encode(bufferPing, new Date().getTime(), idx, 8);
-            idx += 8;
-            encode(bufferPing, payload.length, idx, 4);
-            idx += 4;
-
-            for (int q = 0; q < payload.length; q++) {
-                bufferPing[idx + q * 2] = (byte) 0;
-                bufferPing[idx + q * 2 + 1] = payload[q];
-            }
-            System.arraycopy(bufferPing, 0, completeBuffer, startBuffer.length, bufferPing.length);
-
-            byte[] buf2End = "FABE".getBytes(StandardCharsets.US_ASCII);
-            System.arraycopy(buf2End, 0, completeBuffer, startBuffer.length + bufferPing.length, buf2End.length);
-
-            int checksum = this.computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
-            String checksumHex = encodeNumber(checksum);
-            byte[] checksumBuf = checksumHex.getBytes(StandardCharsets.US_ASCII);
-            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
-            return completeBuffer;
-        }
     }
 }
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link WebSocketFrame} is a reusable view on an incoming frame of the web socket protocol (FABE and TUNE
+ * messages). {@link #parse(byte[], int, int)} reads the header fields directly from the received bytes, numbers are
+ * decoded arithmetically and only the json payload of a push message is converted to a string, on request.
+ * A frame is valid until the next call of parse, so it must only be used by the thread which receives the frames.
+ * The format is based on
+ * https://github.com/Apollon77/alexa-remote/blob/master/alexa-wsmqtt.js
+ *
+ * @author Michael Geramb - Initial contribution
+ * @author Ingo Fischer - (https://github.com/Apollon77/alexa-remote/blob/master/alexa-wsmqtt.js)
+ */
+@NonNullByDefault
+public class WebSocketFrame {
+
+    public static final long CHANNEL_FOR_HEARTBEAT = 0x65;
+    public static final long GW_HANDSHAKE_CHANNEL = 0x361;
+    public static final long GW_CHANNEL = 0x362;
+    public static final long DEE_WEBSITE_MESSAGING = 0xb479;
+
+    private static final byte[] SERVICE_FABE = { 'F', 'A', 'B', 'E' };
+    private static final byte[] SERVICE_TUNE = { 'T', 'U', 'N', 'E' };
+    private static final byte[] TYPE_PON = { 'P', 'O', 'N' };
+    private static final byte[] TYPE_GWM = { 'G', 'W', 'M' };
+
+    private static final int HEX_LENGTH = 10; // 0x12345678
+    private static final int TYPE_LENGTH = 3;
+
+    private byte[] data = new byte[0];
+    private int end;
+    private boolean fabe;
+    private boolean tune;
+    private long channel;
+    private long messageId;
+    private long seq;
+    private long checksum;
+    private int contentTypeIndex = -1;
+    private long contentChannel;
+    private int payloadStart = -1;
+    private int payloadEnd;
+
+    /**
+     * Parses the frame in data[offset, offset + length). The data is not copied and must not be changed while the
+     * frame is used.
+     *
+     * @throws IllegalArgumentException if the frame is truncated or contains an invalid number
+     */
+    public WebSocketFrame parse(byte[] data, int offset, int length) {
+        this.data = data;
+        this.end = offset + length;
+        fabe = false;
+        tune = false;
+        channel = 0;
+        messageId = 0;
+        seq = 0;
+        checksum = 0;
+        contentTypeIndex = -1;
+        contentChannel = 0;
+        payloadStart = -1;
+        payloadEnd = 0;
+
+        if (length < 4) {
+            return this;
+        }
+        int serviceIndex = end - 4;
+        int idx = offset;
+        if (matches(serviceIndex, SERVICE_TUNE)) {
+            tune = true;
+            checksum = readHex(idx, HEX_LENGTH);
+            // the content (length at idx + 11) is currently not used
+        } else if (matches(serviceIndex, SERVICE_FABE)) {
+            fabe = true;
+            idx += TYPE_LENGTH + 1; // message type
+            channel = readHex(idx, HEX_LENGTH);
+            idx += HEX_LENGTH + 1;
+            messageId = readHex(idx, HEX_LENGTH);
+            idx += HEX_LENGTH + 1;
+            idx += 2; // more flag
+            seq = readHex(idx, HEX_LENGTH);
+            idx += HEX_LENGTH + 1;
+            checksum = readHex(idx, HEX_LENGTH);
+            idx += HEX_LENGTH + 1;
+            idx += HEX_LENGTH + 1; // content length, currently not used
+
+            checkRange(idx, TYPE_LENGTH);
+            contentTypeIndex = idx;
+            idx += TYPE_LENGTH + 1;
+
+            if (channel == GW_CHANNEL && matches(contentTypeIndex, TYPE_GWM)) {
+                idx += TYPE_LENGTH + 1; // sub message type
+                contentChannel = readHex(idx, HEX_LENGTH);
+                idx += HEX_LENGTH + 1;
+                if (contentChannel == DEE_WEBSITE_MESSAGING) {
+                    // destination identity urn
+                    int fieldLength = (int) readHex(idx, HEX_LENGTH);
+                    idx += HEX_LENGTH + 1 + fieldLength + 1;
+                    // device identity urn and service name
+                    fieldLength = (int) readHex(idx, HEX_LENGTH);
+                    idx += HEX_LENGTH + 1 + fieldLength + 1;
+                    checkRange(idx, serviceIndex - idx);
+                    payloadStart = idx;
+                    payloadEnd = serviceIndex;
+                }
+            } else if (channel == CHANNEL_FOR_HEARTBEAT) {
+                // the heartbeat content has no delimiter after its type
+                payloadStart = idx - 1;
+                payloadEnd = serviceIndex;
+                checkRange(payloadStart, payloadEnd - payloadStart);
+            }
+        }
+        return this;
+    }
+
+    public boolean isFabe() {
+        return fabe;
+    }
+
+    public boolean isTune() {
+        return tune;
+    }
+
+    public long getChannel() {
+        return channel;
+    }
+
+    public long getMessageId() {
+        return messageId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public long getContentChannel() {
+        return contentChannel;
+    }
+
+    /**
+     * Returns true, if the frame is the answer of the server to a ping
+     */
+    public boolean isPong() {
+        return fabe && channel == CHANNEL_FOR_HEARTBEAT && matches(contentTypeIndex, TYPE_PON)
+                && payloadEnd > payloadStart;
+    }
+
+    /**
+     * Returns the json payload of a push message or null, if the frame is no push message or the payload is empty
+     */
+    public @Nullable String getPushPayload() {
+        if (!fabe || channel != GW_CHANNEL || payloadStart < 0 || payloadEnd <= payloadStart) {
+            return null;
+        }
+        return new String(data, payloadStart, payloadEnd - payloadStart, StandardCharsets.UTF_8);
+    }
+
+    private boolean matches(int index, byte[] expected) {
+        if (index < 0 || index + expected.length > end) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[index + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkRange(int index, int length) {
+        if (index < 0 || length < 0 || index + length > end) {
+            throw new IllegalArgumentException("Frame truncated at " + index);
+        }
+    }
+
+    private long readHex(int index, int length) {
+        checkRange(index, length);
+        int position = index;
+        int fieldEnd = index + length;
+        if (length > 2 && data[position] == '0' && (data[position + 1] == 'x' || data[position + 1] == 'X')) {
+            position += 2;
+        }
+        if (position == fieldEnd) {
+            throw new IllegalArgumentException("Empty number at " + index);
+        }
+        long value = 0;
+        for (; position < fieldEnd; position++) {
+            int digit = Character.digit(data[position], 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid number at " + index);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link WebSocketFrameEncoder} encodes the outgoing FABE frames of the web socket protocol into a reusable
+ * buffer. Each frame is a precomputed template in which only the variable fields (message id, time, connection uuid)
+ * are written. The checksum is the sum of the 32 bit big endian words of the frame without the checksum field, with
+ * the carries added back. The sum of the static part of each template is computed once, so only the variable
+ * fields are added for each frame.
+ * The format is based on
+ * https://github.com/Apollon77/alexa-remote/blob/master/alexa-wsmqtt.js
+ *
+ * @author Michael Geramb - Initial contribution
+ * @author Ingo Fischer - (https://github.com/Apollon77/alexa-remote/blob/master/alexa-wsmqtt.js)
+ */
+@NonNullByDefault
+public class WebSocketFrameEncoder {
+
+    public static final byte[] TUNE_INIT = ascii("0x99d4f71a 0x0000001d A:HTUNE");
+    public static final byte[] TUNE_PROTOCOL = ascii("0xa6f6a951 0x0000009c {\"protocolName\":\"A:H\",\"parameters\":"
+            + "{\"AlphaProtocolHandler.receiveWindowSize\":\"16\",\"AlphaProtocolHandler.maxFragmentSize\":\"16000\"}}"
+            + "TUNE");
+
+    private static final byte[] HEX_DIGITS = ascii("0123456789abcdef");
+
+    // all templates start with "MSG 0x<channel> 0x<message id> f 0x00000001 0x<checksum> 0x<content length> "
+    private static final int MESSAGE_ID_INDEX = 17;
+    private static final int CHECKSUM_INDEX = 39;
+    private static final int CHECKSUM_END = 50;
+
+    private static final Template HANDSHAKE = new Template("MSG 0x00000361 0x00000000 f 0x00000001 0x00000000 "
+            + "0x0000009b INI 0x00000003 1.0 0x00000024 00000000-0000-0000-0000-000000000000 0x0000000000000000 END "
+            + "FABE");
+    private static final int HANDSHAKE_UUID_INDEX = 91;
+    private static final int HANDSHAKE_TIME_INDEX = 130;
+
+    private static final Template REGISTER = new Template("MSG 0x00000362 0x00000000 f 0x00000001 0x00000000 "
+            + "0x00000109 GWM MSG 0x0000b479 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 "
+            + "0x00000041 urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService "
+            + "{\"command\":\"REGISTER_CONNECTION\"}FABE");
+
+    private static final Template PING = new Template(pingTemplate());
+    private static final int PING_TIME_INDEX = 68;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+    private Template template = REGISTER;
+    private long sum;
+
+    private static class Template {
+        final byte[] bytes;
+        final long staticSum;
+
+        Template(String frame) {
+            this(ascii(frame));
+        }
+
+        Template(byte[] bytes) {
+            this.bytes = bytes;
+            long sum = 0;
+            for (int index = 0; index < bytes.length; index++) {
+                if (index < CHECKSUM_INDEX || index >= CHECKSUM_END) {
+                    sum += word(bytes[index], index);
+                }
+            }
+            this.staticSum = sum;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] pingTemplate() {
+        byte[] bytes = new byte[0x62];
+        byte[] header = ascii("MSG 0x00000065 0x00000000 f 0x00000001 0x00000000 0x00000062 PIN");
+        System.arraycopy(header, 0, bytes, 0, header.length);
+        // 4 bytes 0, 8 bytes time, 4 bytes length of the payload and the payload in UTF-16
+        byte[] payload = ascii("Regular");
+        int index = header.length + 4 + 8 + 3;
+        bytes[index++] = (byte) payload.length;
+        for (byte character : payload) {
+            bytes[index++] = 0;
+            bytes[index++] = character;
+        }
+        byte[] end = ascii("FABE");
+        System.arraycopy(end, 0, bytes, index, end.length);
+        return bytes;
+    }
+
+    /**
+     * The value of a byte in the big endian 32 bit word which contains it
+     */
+    private static long word(byte value, int index) {
+        return (long) (value & 0xFF) << ((3 - (index & 3)) << 3);
+    }
+
+    /**
+     * Encodes the handshake frame, the returned buffer is valid until the next call of this encoder
+     */
+    public ByteBuffer encodeGWHandshake(long messageId, UUID connectionUUID, long time) {
+        start(HANDSHAKE, messageId);
+        putHex(HANDSHAKE_UUID_INDEX, connectionUUID.getMostSignificantBits() >>> 32, 8);
+        putHex(HANDSHAKE_UUID_INDEX + 9, connectionUUID.getMostSignificantBits() >>> 16, 4);
+        putHex(HANDSHAKE_UUID_INDEX + 14, connectionUUID.getMostSignificantBits(), 4);
+        putHex(HANDSHAKE_UUID_INDEX + 19, connectionUUID.getLeastSignificantBits() >>> 48, 4);
+        putHex(HANDSHAKE_UUID_INDEX + 24, connectionUUID.getLeastSignificantBits(), 12);
+        putHex(HANDSHAKE_TIME_INDEX, time, 16);
+        return finish();
+    }
+
+    /**
+     * Encodes the frame which registers the connection for the push messages, the returned buffer is valid until
+     * the next call of this encoder
+     */
+    public ByteBuffer encodeGWRegister(long messageId) {
+        start(REGISTER, messageId);
+        return finish();
+    }
+
+    /**
+     * Encodes a ping frame, the returned buffer is valid until the next call of this encoder
+     */
+    public ByteBuffer encodePing(long messageId, long time) {
+        start(PING, messageId);
+        for (int index = 0; index < 8; index++) {
+            put(PING_TIME_INDEX + index, (byte) (time >>> ((7 - index) << 3)));
+        }
+        return finish();
+    }
+
+    private void start(Template template, long messageId) {
+        this.template = template;
+        buffer.clear();
+        buffer.put(template.bytes);
+        sum = template.staticSum;
+        putHex(MESSAGE_ID_INDEX, messageId, 8);
+    }
+
+    private ByteBuffer finish() {
+        long overflow = sum >>> 32;
+        long checksum = sum & 0xFFFFFFFFL;
+        while (overflow != 0) {
+            checksum += overflow;
+            overflow = checksum >>> 32;
+            checksum &= 0xFFFFFFFFL;
+        }
+        // the checksum field is not part of the sum
+        for (int index = 0; index < 8; index++) {
+            buffer.put(CHECKSUM_INDEX + 2 + index, HEX_DIGITS[(int) (checksum >>> ((7 - index) << 2)) & 0xF]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes the lowest digits of the value as lower case hex number at the index
+     */
+    private void putHex(int index, long value, int digits) {
+        for (int digit = 0; digit < digits; digit++) {
+            put(index + digit, HEX_DIGITS[(int) (value >>> ((digits - 1 - digit) << 2)) & 0xF]);
+        }
+    }
+
+    /**
+     * Writes a byte at the index and replaces the value of the template byte in the sum
+     */
+    private void put(int index, byte value) {
+        buffer.put(index, value);
+        sum += word(value, index) - word(template.bytes[index], index);
+    }
+}
@@ -12,22 +12,38 @@
  */
 package org.openhab.binding.amazonechocontrol.internal.handler;
 
+import static org.openhab.binding.amazonechocontrol.internal.AmazonEchoControlBindingConstants.*;
+
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
@@ -40,10 +56,15 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.amazonechocontrol.internal.AccountServlet;
+import org.openhab.binding.amazonechocontrol.internal.AccountSnapshot;
+import org.openhab.binding.amazonechocontrol.internal.ActivityCache;
 import org.openhab.binding.amazonechocontrol.internal.Connection;
 import org.openhab.binding.amazonechocontrol.internal.ConnectionException;
 import org.openhab.binding.amazonechocontrol.internal.HttpException;
 import org.openhab.binding.amazonechocontrol.internal.IWebSocketCommandHandler;
+import org.openhab.binding.amazonechocontrol.internal.PollingPolicy;
+import org.openhab.binding.amazonechocontrol.internal.PushEventCoalescer;
+import org.openhab.binding.amazonechocontrol.internal.ReconnectBackoff;
 import org.openhab.binding.amazonechocontrol.internal.WebSocketConnection;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities.Activity;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities.Activity.SourceDeviceId;
@@ -59,10 +80,12 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDevices.Device;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonFeed;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMusicProvider;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonNotificationSound;
-import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists.PlayList;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPushCommand;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeDevices.SmartHomeDevice;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonWakeWords.WakeWord;
+import org.openhab.binding.amazonechocontrol.internal.smarthome.ApplianceStateSnapshot;
 import org.osgi.service.http.HttpService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,30 +100,65 @@ import com.google.gson.JsonSyntaxException;
  */
 @NonNullByDefault
 public class AccountHandler extends BaseBridgeHandler implements IWebSocketCommandHandler {
+    private static final int POLL_TICK = 5; // seconds
+    private static final long ACTIVITY_TIME = 60000; // milliseconds of fast polling after a command or push event
+    private static final int REFRESH_DEADLINE = 60; // seconds for fetching the states of all echo devices
+    // separate pools, so a long refresh does not delay the push events
+    private static final String REFRESH_THREAD_POOL_NAME = "amazonechocontrol-refresh";
+    private static final String PUSH_THREAD_POOL_NAME = "amazonechocontrol-push";
+    private static final int MAX_PENDING_PUSH_EVENTS = 256;
+    private static final int PUSH_EVENT_LANES = 4; // devices whose push events are handled at the same time
+    private static final long WEB_SOCKET_RECONNECT_FLOOR = 2000; // milliseconds
+    private static final long WEB_SOCKET_RECONNECT_CEILING = 300000; // milliseconds
+    private static final long ACTIVITY_BATCH_WINDOW = 300; // milliseconds
+    private static final long ACTIVITY_CACHE_TIME = 10000; // milliseconds
+    private static final long CATALOG_INVALIDATION_INTERVAL = 300000; // milliseconds between catalog refreshes
 
     private final Logger logger = LoggerFactory.getLogger(AccountHandler.class);
     private Storage<String> stateStorage;
     private @Nullable Connection connection;
     private @Nullable WebSocketConnection webSocketConnection;
+    private @Nullable ScheduledFuture<?> webSocketReconnectJob;
+    private final Object webSocketLock = new Object();
+    private final ReconnectBackoff webSocketBackoff = new ReconnectBackoff(WEB_SOCKET_RECONNECT_FLOOR,
+            WEB_SOCKET_RECONNECT_CEILING);
     private final Set<EchoHandler> echoHandlers = new HashSet<>();
     private final Set<SmartHomeDeviceHandler> smartHomeDeviceHandlers = new HashSet<>();
     private final Set<FlashBriefingProfileHandler> flashBriefingProfileHandlers = new HashSet<>();
+    // guards login and session renewal only, refresh and commands run in parallel to it
     private final Object synchronizeConnection = new Object();
-    private Map<String, Device> jsonSerialNumberDeviceMapping = new HashMap<>();
+    private final Object checkDataLock = new Object();
+    private final AtomicBoolean refreshRunning = new AtomicBoolean();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    // the catalogs are fetched on startup, so the refresh commands of the startup do not invalidate them
+    private final AtomicLong lastCatalogInvalidation = new AtomicLong(System.currentTimeMillis());
+    private volatile AccountSnapshot snapshot = AccountSnapshot.EMPTY;
+    private final Object snapshotLock = new Object();
     private @Nullable ScheduledFuture<?> checkDataJob;
     private @Nullable ScheduledFuture<?> checkLoginJob;
-    private @Nullable ScheduledFuture<?> refreshAfterCommandJob;
+    private @Nullable ScheduledFuture<?> pushRefreshJob;
+    private final Set<PushRefresh> pendingPushRefreshes = EnumSet.noneOf(PushRefresh.class);
     private @Nullable ScheduledFuture<?> foceCheckDataJob;
+    private @Nullable ScheduledFuture<?> pollDevicesJob;
+    private int refreshParallelism = 4;
+    private PollingPolicy smartHomePollingPolicy = new PollingPolicy(10000, 120000, ACTIVITY_TIME);
+    private PollingPolicy echoPollingPolicy = new PollingPolicy(30000, 3600000, ACTIVITY_TIME);
+    private @Nullable PushEventCoalescer<PushEvent> pushEventCoalescer;
+    private final ActivityCache activityCache = new ActivityCache(scheduler, this::getActivities,
+            ACTIVITY_BATCH_WINDOW, ACTIVITY_CACHE_TIME);
     private String currentFlashBriefingJson = "";
     private final HttpService httpService;
+    private final WebSocketClient webSocketClient;
     private @Nullable AccountServlet accountServlet;
     private final Gson gson = new Gson();
     int checkDataCounter;
 
-    public AccountHandler(Bridge bridge, HttpService httpService, Storage<String> stateStorage) {
+    public AccountHandler(Bridge bridge, HttpService httpService, Storage<String> stateStorage,
+            WebSocketClient webSocketClient) {
         super(bridge);
         this.httpService = httpService;
         this.stateStorage = stateStorage;
+        this.webSocketClient = webSocketClient;
     }
 
     @Override
@@ -117,18 +175,49 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
             this.accountServlet = new AccountServlet(httpService, this.getThing().getUID().getId(), this);
         }
 
+        smartHomePollingPolicy = new PollingPolicy(
+                getConfigNumber(ACCOUNT_CONFIG_POLLING_INTERVAL_SMART_HOME_MIN, 10) * 1000,
+                getConfigNumber(ACCOUNT_CONFIG_POLLING_INTERVAL_SMART_HOME_MAX, 120) * 1000, ACTIVITY_TIME);
+        echoPollingPolicy = new PollingPolicy(getConfigNumber(ACCOUNT_CONFIG_POLLING_INTERVAL_ECHO_MIN, 30) * 1000,
+                getConfigNumber(ACCOUNT_CONFIG_POLLING_INTERVAL_ECHO_MAX, 3600) * 1000, ACTIVITY_TIME);
+
+        // push events are handled in the order of arrival per device, different devices in parallel
+        pushEventCoalescer = new PushEventCoalescer<>(scheduler, ThreadPoolManager.getPool(PUSH_THREAD_POOL_NAME),
+                PUSH_EVENT_LANES, Math.max(0, getConfigNumber(ACCOUNT_CONFIG_PUSH_EVENT_WINDOW, 250)),
+                MAX_PENDING_PUSH_EVENTS, this::getPushEventLane, this::getPushEventType, this::handleWebsocketCommand);
+
+        refreshParallelism = (int) Math.max(1, getConfigNumber(ACCOUNT_CONFIG_REFRESH_PARALLELISM, 4));
+
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_PENDING, "Wait for login");
 
         checkLoginJob = scheduler.scheduleWithFixedDelay(this::checkLogin, 0, 60, TimeUnit.SECONDS);
         checkDataJob = scheduler.scheduleWithFixedDelay(this::checkData, 4, 60, TimeUnit.SECONDS);
+        pollDevicesJob = scheduler.scheduleWithFixedDelay(this::pollDevices, 4, POLL_TICK, TimeUnit.SECONDS);
 
         logger.debug("amazon account bridge handler started.");
     }
 
+    private long getConfigNumber(String parameter, long defaultValue) {
+        Object value = getConfig().get(parameter);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return defaultValue;
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         logger.trace("Command '{}' received for channel '{}'", command, channelUID);
         if (command instanceof RefreshType) {
+            // a refresh also fetches the catalogs (sounds, playlists, music providers) again, but at most once per
+            // interval, because a refresh is also sent for every linked channel and by rules
+            Connection currentConnection = connection;
+            long now = System.currentTimeMillis();
+            long lastInvalidation = lastCatalogInvalidation.get();
+            if (currentConnection != null && now - lastInvalidation >= CATALOG_INVALIDATION_INTERVAL
+                    && lastCatalogInvalidation.compareAndSet(lastInvalidation, now)) {
+                currentConnection.invalidateCatalogs();
+            }
             refreshData();
         }
     }
@@ -137,12 +226,25 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         return new ArrayList<>(this.flashBriefingProfileHandlers);
     }
 
-    public List<Device> getLastKnownDevices() {
-        return new ArrayList<>(jsonSerialNumberDeviceMapping.values());
+    /**
+     * Returns the last published state of the devices, the snapshot is immutable and can be read without locking
+     */
+    public AccountSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private AccountSnapshot publishSnapshot(UnaryOperator<AccountSnapshot> update) {
+        synchronized (snapshotLock) {
+            AccountSnapshot newSnapshot = update.apply(snapshot);
+            snapshot = newSnapshot;
+            return newSnapshot;
+        }
     }
 
     public List<SmartHomeDeviceHandler> getSmartHomeDeviceHandlers() {
-        return new ArrayList<>(this.smartHomeDeviceHandlers);
+        synchronized (smartHomeDeviceHandlers) {
+            return new ArrayList<>(this.smartHomeDeviceHandlers);
+        }
     }
 
     public void addEchoHandler(EchoHandler echoHandler) {
@@ -155,7 +257,7 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
     }
 
     public void addSmartHomeDeviceHandler(SmartHomeDeviceHandler smartHomeDeviceHandler) {
-        synchronized (smartHomeDeviceHandler) {
+        synchronized (smartHomeDeviceHandlers) {
             if (!smartHomeDeviceHandlers.add(smartHomeDeviceHandler)) {
                 return;
             }
@@ -211,14 +313,34 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         super.handleRemoval();
     }
 
+    /**
+     * Called after a command or push event for a device, the device is polled faster for a short time
+     */
+    public void notifyDeviceActivity(ThingHandler handler) {
+        String key = handler.getThing().getUID().getAsString();
+        if (handler instanceof EchoHandler) {
+            echoPollingPolicy.notifyActivity(key);
+        } else if (handler instanceof SmartHomeDeviceHandler) {
+            smartHomePollingPolicy.notifyActivity(key);
+        }
+    }
+
     @Override
     public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        echoPollingPolicy.remove(childThing.getUID().getAsString());
+        smartHomePollingPolicy.remove(childThing.getUID().getAsString());
         // check for echo handler
         if (childHandler instanceof EchoHandler) {
             synchronized (echoHandlers) {
                 echoHandlers.remove(childHandler);
             }
         }
+        // check for smart home device handler
+        if (childHandler instanceof SmartHomeDeviceHandler) {
+            synchronized (smartHomeDeviceHandlers) {
+                smartHomeDeviceHandlers.remove(childHandler);
+            }
+        }
         // check for flash briefing profile handler
         if (childHandler instanceof FlashBriefingProfileHandler) {
             synchronized (flashBriefingProfileHandlers) {
@@ -259,12 +381,26 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
             foceCheckDataJob.cancel(true);
             this.foceCheckDataJob = null;
         }
+        synchronized (pendingPushRefreshes) {
+            @Nullable
+            ScheduledFuture<?> pushRefreshJob = this.pushRefreshJob;
+            if (pushRefreshJob != null) {
+                pushRefreshJob.cancel(true);
+                this.pushRefreshJob = null;
+            }
+        }
         @Nullable
-        ScheduledFuture<?> refreshDataDelayed = this.refreshAfterCommandJob;
-        if (refreshDataDelayed != null) {
-            refreshDataDelayed.cancel(true);
-            this.refreshAfterCommandJob = null;
+        ScheduledFuture<?> pollDevicesJob = this.pollDevicesJob;
+        if (pollDevicesJob != null) {
+            pollDevicesJob.cancel(true);
+            this.pollDevicesJob = null;
         }
+        PushEventCoalescer<PushEvent> pushEventCoalescer = this.pushEventCoalescer;
+        if (pushEventCoalescer != null) {
+            pushEventCoalescer.close();
+            this.pushEventCoalescer = null;
+        }
+        activityCache.clear();
         Connection connection = this.connection;
         if (connection != null) {
             connection.logout();
@@ -344,158 +480,399 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
     }
 
     void closeWebSocketConnection() {
-        WebSocketConnection webSocketConnection = this.webSocketConnection;
-        this.webSocketConnection = null;
+        WebSocketConnection webSocketConnection;
+        synchronized (webSocketLock) {
+            webSocketConnection = this.webSocketConnection;
+            this.webSocketConnection = null;
+            echoPollingPolicy.setPollWhilePlaying(true);
+            ScheduledFuture<?> webSocketReconnectJob = this.webSocketReconnectJob;
+            if (webSocketReconnectJob != null) {
+                webSocketReconnectJob.cancel(false);
+                this.webSocketReconnectJob = null;
+            }
+        }
         if (webSocketConnection != null) {
             webSocketConnection.close();
         }
     }
 
     boolean checkWebSocketConnection() {
-        WebSocketConnection webSocketConnection = this.webSocketConnection;
-        if (webSocketConnection == null || webSocketConnection.isClosed()) {
-            Connection connection = this.connection;
-            if (connection != null && connection.getIsLoggedIn()) {
-                try {
-                    this.webSocketConnection = new WebSocketConnection(connection.getAmazonSite(),
-                            connection.getSessionCookies(), this);
-                } catch (IOException e) {
-                    logger.warn("Web socket connection starting failed: {}", e);
+        synchronized (webSocketLock) {
+            WebSocketConnection webSocketConnection = this.webSocketConnection;
+            if (webSocketConnection == null || webSocketConnection.isClosed()) {
+                Connection connection = this.connection;
+                if (connection != null && connection.getIsLoggedIn()) {
+                    try {
+                        this.webSocketConnection = new WebSocketConnection(connection.getAmazonSite(),
+                                connection.getSessionCookies(), this, scheduler, webSocketClient);
+                    } catch (IOException e) {
+                        logger.warn("Web socket connection starting failed: {}", e);
+                        scheduleWebSocketReconnect();
+                    }
                 }
+                return false;
             }
-            return false;
+            return true;
+        }
+    }
+
+    private void scheduleWebSocketReconnect() {
+        synchronized (webSocketLock) {
+            if (webSocketReconnectJob == null) {
+                long delay = webSocketBackoff.nextDelay();
+                logger.debug("Web socket reconnect in {} ms", delay);
+                webSocketReconnectJob = scheduler.schedule(this::reconnectWebSocket, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void reconnectWebSocket() {
+        synchronized (webSocketLock) {
+            webSocketReconnectJob = null;
+        }
+        checkWebSocketConnection();
+    }
+
+    @Override
+    public void webSocketConnectionOpened(WebSocketConnection webSocketConnection) {
+        synchronized (webSocketLock) {
+            if (webSocketConnection != this.webSocketConnection) {
+                return;
+            }
+            // playing state changes are pushed now
+            echoPollingPolicy.setPollWhilePlaying(false);
+            if (webSocketBackoff.connected()) {
+                // push events were lost while the connection was down
+                forceCheckData();
+            }
+        }
+    }
+
+    @Override
+    public void webSocketConnectionClosed(WebSocketConnection webSocketConnection) {
+        synchronized (webSocketLock) {
+            if (webSocketConnection != this.webSocketConnection) {
+                // closed by this handler
+                return;
+            }
+            echoPollingPolicy.setPollWhilePlaying(true);
+            webSocketBackoff.disconnected();
+            scheduleWebSocketReconnect();
         }
-        return true;
     }
 
     private void checkData() {
-        synchronized (synchronizeConnection) {
-            try {
-                Connection connection = this.connection;
-                if (connection != null && connection.getIsLoggedIn()) {
+        try {
+            Connection connection = this.connection;
+            if (connection != null && connection.getIsLoggedIn()) {
+                boolean refresh;
+                synchronized (checkDataLock) {
                     checkDataCounter++;
                     if (checkDataCounter > 60 || foceCheckDataJob != null) {
                         checkDataCounter = 0;
                         foceCheckDataJob = null;
                     }
-                    if (!checkWebSocketConnection() || checkDataCounter == 0) {
-                        refreshData();
-                    }
+                    refresh = !checkWebSocketConnection() || checkDataCounter == 0;
+                }
+                if (refresh) {
+                    refreshData();
                 }
-                logger.debug("checkData {} finished", getThing().getUID().getAsString());
-            } catch (HttpException | JsonSyntaxException | ConnectionException e) {
-                logger.debug("checkData fails {}", e);
-            } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
-                logger.error("checkData fails with unexpected error {}", e);
             }
+            logger.debug("checkData {} finished", getThing().getUID().getAsString());
+        } catch (HttpException | JsonSyntaxException | ConnectionException e) {
+            logger.debug("checkData fails {}", e);
+        } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
+            logger.error("checkData fails with unexpected error {}", e);
+        }
+    }
+
+    private void pollDevices() {
+        Connection currentConnection = this.connection;
+        if (currentConnection == null || !currentConnection.getIsLoggedIn()) {
+            return;
         }
+        pollSmartHomeDevices(currentConnection);
+        pollEchoDevices();
+    }
+
+    /**
+     * Polls the states of the appliances of all smart home things which are due with batched requests (each
+     * appliance once, even if it is part of several light groups) and forwards them to the handlers
+     */
+    private void pollSmartHomeDevices(Connection currentConnection) {
+        List<SmartHomeDeviceHandler> handlers = new ArrayList<>();
+        Set<String> applianceIds = new HashSet<>();
+        for (SmartHomeDeviceHandler handler : getSmartHomeDeviceHandlers()) {
+            if (smartHomePollingPolicy.isPollDue(handler.getThing().getUID().getAsString())) {
+                handlers.add(handler);
+                applianceIds.addAll(handler.findApplianceIds());
+            }
+        }
+        if (applianceIds.isEmpty()) {
+            return;
+        }
+        Map<String, ApplianceStateSnapshot> applianceStates = new HashMap<>();
+        Set<String> failedApplianceIds = new HashSet<>();
+        try {
+            applianceStates = currentConnection.getApplianceStates(applianceIds, failedApplianceIds);
+        } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
+            logger.error("poll smart home devices fails with unexpected error {}", e);
+            return;
+        }
+        for (SmartHomeDeviceHandler handler : handlers) {
+            if (!Collections.disjoint(handler.findApplianceIds(), failedApplianceIds)) {
+                // the fetch failed, the unknown state is no reason to back off
+                continue;
+            }
+            boolean changed = handler.updateApplianceStates(applianceStates);
+            long interval = smartHomePollingPolicy.polled(handler.getThing().getUID().getAsString(), changed);
+            handler.updatePollingInterval(interval);
+        }
+    }
+
+    private void pollEchoDevices() {
+        List<EchoHandler> handlers;
+        synchronized (echoHandlers) {
+            handlers = new ArrayList<>(echoHandlers);
+        }
+        for (EchoHandler handler : handlers) {
+            if (echoPollingPolicy.isPollDue(handler.getThing().getUID().getAsString())) {
+                String playerStateSummary = handler.getPlayerStateSummary();
+                try {
+                    handler.refreshState();
+                } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
+                    logger.error("poll echo device fails with unexpected error {}", e);
+                }
+                echoPolled(handler, playerStateSummary);
+            }
+        }
+    }
+
+    /**
+     * Updates the polling interval of an echo device after its state was updated
+     *
+     * @param previousPlayerStateSummary the player state summary before the update, a change resets the interval
+     */
+    private void echoPolled(EchoHandler handler, String previousPlayerStateSummary) {
+        String key = handler.getThing().getUID().getAsString();
+        boolean changed = !previousPlayerStateSummary.isEmpty()
+                && !previousPlayerStateSummary.equals(handler.getPlayerStateSummary());
+        echoPollingPolicy.setPlaying(key, handler.isPlaying());
+        handler.updatePollingInterval(echoPollingPolicy.polled(key, changed));
     }
 
+    /**
+     * Refreshes the data of all devices. A refresh requested while another one is running does not queue up, the
+     * running refresh is repeated once after it has finished instead.
+     */
     private void refreshData() {
-        synchronized (synchronizeConnection) {
+        refreshRequested.set(true);
+        while (refreshRequested.get() && refreshRunning.compareAndSet(false, true)) {
             try {
-                logger.debug("refreshing data {}", getThing().getUID().getAsString());
+                refreshRequested.set(false);
+                executeRefreshData();
+            } finally {
+                refreshRunning.set(false);
+            }
+        }
+    }
 
-                // check if logged in
-                Connection currentConnection = null;
-                currentConnection = connection;
-                if (currentConnection != null) {
-                    if (!currentConnection.getIsLoggedIn()) {
-                        return;
-                    }
-                }
-                if (currentConnection == null) {
+    private void executeRefreshData() {
+        try {
+            logger.debug("refreshing data {}", getThing().getUID().getAsString());
+
+            // check if logged in
+            Connection currentConnection = null;
+            currentConnection = connection;
+            if (currentConnection != null) {
+                if (!currentConnection.getIsLoggedIn()) {
                     return;
                 }
+            }
+            if (currentConnection == null) {
+                return;
+            }
 
-                // get all devices registered in the account
-                updateDeviceList();
-                updateFlashBriefingHandlers();
+            // get all devices registered in the account
+            updateDeviceList();
+            updateFlashBriefingHandlers();
 
-                DeviceNotificationState[] deviceNotificationStates = null;
-                AscendingAlarmModel[] ascendingAlarmModels = null;
-                JsonBluetoothStates states = null;
-                List<JsonMusicProvider> musicProviders = null;
-                if (currentConnection.getIsLoggedIn()) {
-                    // update notification states
-                    deviceNotificationStates = currentConnection.getDeviceNotificationStates();
+            DeviceNotificationState[] deviceNotificationStates = null;
+            AscendingAlarmModel[] ascendingAlarmModels = null;
+            JsonBluetoothStates states = null;
+            List<JsonMusicProvider> musicProviders = null;
+            if (currentConnection.getIsLoggedIn()) {
+                // update notification states
+                deviceNotificationStates = currentConnection.getDeviceNotificationStates();
 
-                    // update ascending alarm
-                    ascendingAlarmModels = currentConnection.getAscendingAlarm();
+                // update ascending alarm
+                ascendingAlarmModels = currentConnection.getAscendingAlarm();
 
-                    // update bluetooth states
-                    states = currentConnection.getBluetoothConnectionStates();
+                // update bluetooth states
+                states = currentConnection.getBluetoothConnectionStates();
 
-                    // update music providers
-                    if (currentConnection.getIsLoggedIn()) {
-                        try {
-                            musicProviders = currentConnection.getMusicProviders();
-                        } catch (HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update music provider failed {}", e);
-                        }
+                // update music providers
+                if (currentConnection.getIsLoggedIn()) {
+                    try {
+                        musicProviders = currentConnection.getMusicProviders();
+                    } catch (HttpException | JsonSyntaxException | ConnectionException e) {
+                        logger.debug("Update music provider failed {}", e);
                     }
                 }
-                // forward device information to echo handler
-                for (EchoHandler child : echoHandlers) {
-                    Device device = findDeviceJson(child);
-
-                    @Nullable
-                    JsonNotificationSound[] notificationSounds = null;
-                    JsonPlaylists playlists = null;
-                    if (device != null && currentConnection.getIsLoggedIn()) {
-                        // update notification sounds
-                        try {
-                            notificationSounds = currentConnection.getNotificationSounds(device);
-                        } catch (IOException | HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update notification sounds failed {}", e);
-                        }
-                        // update playlists
-                        try {
-                            playlists = currentConnection.getPlaylists(device);
-                        } catch (IOException | HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update playlist failed {}", e);
-                        }
-                    }
+            }
+            JsonBluetoothStates bluetoothStates = states;
+            DeviceNotificationState[] notificationStates = deviceNotificationStates;
+            AscendingAlarmModel[] ascendingAlarms = ascendingAlarmModels;
+            AccountSnapshot currentSnapshot = publishSnapshot(
+                    current -> current.withStates(bluetoothStates, notificationStates, ascendingAlarms));
+
+            // fetch the player state of all devices with one request
+            Map<String, PlayerInfo> mediaSessions = null;
+            try {
+                mediaSessions = currentConnection.getMediaSessions();
+            } catch (IOException | URISyntaxException | HttpException | JsonSyntaxException | ConnectionException e) {
+                logger.debug("Update media sessions failed, fetching the player state per device {}", e);
+            }
 
-                    BluetoothState state = null;
-                    if (states != null) {
-                        state = states.findStateByDevice(device);
-                    }
-                    DeviceNotificationState deviceNotificationState = null;
-                    AscendingAlarmModel ascendingAlarmModel = null;
-                    if (device != null) {
-                        if (ascendingAlarmModels != null) {
-                            for (AscendingAlarmModel current : ascendingAlarmModels) {
-                                if (StringUtils.equals(current.deviceSerialNumber, device.serialNumber)) {
-                                    ascendingAlarmModel = current;
-                                    break;
-                                }
-                            }
-                        }
+            // fetch the device specific data of all echo devices in parallel
+            List<EchoRefresh> refreshes = fetchEchoRefreshes(currentConnection, mediaSessions);
+
+            // forward device information to echo handler
+            for (EchoRefresh refresh : refreshes) {
+                EchoHandler child = refresh.handler;
+                Device device = refresh.device;
+
+                String serialNumber = device != null ? device.serialNumber : null;
+                BluetoothState state = currentSnapshot.findBluetoothState(serialNumber);
+                DeviceNotificationState deviceNotificationState = currentSnapshot
+                        .findNotificationState(serialNumber);
+                AscendingAlarmModel ascendingAlarmModel = currentSnapshot.findAscendingAlarm(serialNumber);
+                String playerStateSummary = child.getPlayerStateSummary();
+                child.updateState(this, device, state, deviceNotificationState, ascendingAlarmModel,
+                        refresh.playlists, refresh.notificationSounds, musicProviders, refresh.playerState);
+                echoPolled(child, playerStateSummary);
+            }
 
-                        if (deviceNotificationStates != null) {
-                            for (DeviceNotificationState current : deviceNotificationStates) {
-                                if (StringUtils.equals(current.deviceSerialNumber, device.serialNumber)) {
-                                    deviceNotificationState = current;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    child.updateState(this, device, state, deviceNotificationState, ascendingAlarmModel, playlists,
-                            notificationSounds, musicProviders);
-                }
+            // update account state
+            updateStatus(ThingStatus.ONLINE);
 
-                // update account state
-                updateStatus(ThingStatus.ONLINE);
+            logger.debug("refresh data {} finished", getThing().getUID().getAsString());
+        } catch (HttpException | JsonSyntaxException | ConnectionException e) {
+            logger.debug("refresh data fails {}", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
+            logger.error("refresh data fails with unexpected error {}", e);
+        }
+    }
+
+    /**
+     * The device specific data of an echo device, fetched in parallel for all devices by refreshData
+     */
+    private static class EchoRefresh {
+        final EchoHandler handler;
+        final @Nullable Device device;
+        @Nullable
+        List<JsonNotificationSound> notificationSounds;
+        @Nullable
+        List<PlayList> playlists;
+        @Nullable
+        EchoPlayerState playerState;
 
-                logger.debug("refresh data {} finished", getThing().getUID().getAsString());
-            } catch (HttpException | JsonSyntaxException | ConnectionException e) {
-                logger.debug("refresh data fails {}", e);
-            } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
-                logger.error("refresh data fails with unexpected error {}", e);
+        EchoRefresh(EchoHandler handler, @Nullable Device device) {
+            this.handler = handler;
+            this.device = device;
+        }
+    }
+
+    /**
+     * Fetches notification sounds, playlists and the player state of all echo devices on the refresh thread pool of
+     * the binding, at most refreshParallelism devices at the same time. The wall time is bounded by the slowest device
+     * and the refresh deadline; devices which did not finish in time are skipped in this refresh.
+     *
+     * @param mediaSessions the player info of the media sessions of the account or null, if they are not available
+     */
+    private List<EchoRefresh> fetchEchoRefreshes(Connection currentConnection,
+            @Nullable Map<String, PlayerInfo> mediaSessions) throws InterruptedException {
+        List<EchoHandler> handlers;
+        synchronized (echoHandlers) {
+            handlers = new ArrayList<>(echoHandlers);
+        }
+        List<FutureTask<EchoRefresh>> tasks = new ArrayList<>();
+        for (EchoHandler handler : handlers) {
+            tasks.add(new FutureTask<>(() -> fetchEchoRefresh(currentConnection, handler, mediaSessions)));
+        }
+        List<EchoRefresh> result = new ArrayList<>();
+        if (tasks.isEmpty()) {
+            return result;
+        }
+        // each worker takes the next device until all are done, so no pool thread waits for a free slot
+        Queue<FutureTask<EchoRefresh>> queue = new ConcurrentLinkedQueue<>(tasks);
+        Runnable worker = () -> {
+            FutureTask<EchoRefresh> task;
+            while ((task = queue.poll()) != null) {
+                task.run();
             }
+        };
+        ExecutorService pool = ThreadPoolManager.getPool(REFRESH_THREAD_POOL_NAME);
+        try {
+            for (int i = 0; i < Math.min(refreshParallelism, tasks.size()); i++) {
+                pool.execute(worker);
+            }
+        } catch (RejectedExecutionException e) {
+            // the refreshing thread does the work of the missing workers
+            worker.run();
         }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(REFRESH_DEADLINE);
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                FutureTask<EchoRefresh> task = tasks.get(i);
+                try {
+                    result.add(task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    logger.debug("refresh of {} exceeded the deadline",
+                            handlers.get(i).getThing().getUID().getAsString());
+                } catch (ExecutionException e) {
+                    logger.error("refresh of {} fails with unexpected error {}",
+                            handlers.get(i).getThing().getUID().getAsString(), e.getCause());
+                }
+            }
+        } finally {
+            // skip the devices which did not start before the deadline. The running ones are not interrupted, the pool
+            // threads are shared and the requests end with their read timeout, their result is ignored.
+            for (FutureTask<EchoRefresh> task : tasks) {
+                task.cancel(false);
+            }
+        }
+        return result;
+    }
+
+    private EchoRefresh fetchEchoRefresh(Connection currentConnection, EchoHandler handler,
+            @Nullable Map<String, PlayerInfo> mediaSessions) {
+        Device device = findDeviceJson(handler);
+        EchoRefresh refresh = new EchoRefresh(handler, device);
+        if (device != null && currentConnection.getIsLoggedIn()) {
+            // update notification sounds
+            try {
+                refresh.notificationSounds = currentConnection.getNotificationSounds(device);
+            } catch (IOException | URISyntaxException | HttpException | JsonSyntaxException | ConnectionException e) {
+                logger.debug("Update notification sounds failed {}", e);
+            }
+            // update playlists
+            try {
+                refresh.playlists = currentConnection.getPlaylists(device);
+            } catch (IOException | URISyntaxException | HttpException | JsonSyntaxException | ConnectionException e) {
+                logger.debug("Update playlist failed {}", e);
+            }
+            PlayerInfo playerInfo = mediaSessions != null ? mediaSessions.get(device.serialNumber) : null;
+            if (playerInfo != null) {
+                refresh.playerState = handler.fetchPlayerState(currentConnection, device, playerInfo);
+            } else {
+                // the device is missing in the session list or the list is not available, ask the device itself
+                refresh.playerState = handler.fetchPlayerState(currentConnection, device);
+            }
+        }
+        return refresh;
     }
 
     public @Nullable Device findDeviceJson(EchoHandler echoHandler) {
@@ -504,29 +881,11 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
     }
 
     public @Nullable Device findDeviceJson(@Nullable String serialNumber) {
-        Device result = null;
-        if (StringUtils.isNotEmpty(serialNumber)) {
-            Map<String, Device> jsonSerialNumberDeviceMapping = this.jsonSerialNumberDeviceMapping;
-            result = jsonSerialNumberDeviceMapping.get(serialNumber);
-        }
-        return result;
+        return snapshot.findDevice(serialNumber);
     }
 
     public @Nullable Device findDeviceJsonBySerialOrName(@Nullable String serialOrName) {
-        if (StringUtils.isNotEmpty(serialOrName)) {
-            Map<String, Device> currentJsonSerialNumberDeviceMapping = this.jsonSerialNumberDeviceMapping;
-            for (Device device : currentJsonSerialNumberDeviceMapping.values()) {
-                if (StringUtils.equalsIgnoreCase(device.serialNumber, serialOrName)) {
-                    return device;
-                }
-            }
-            for (Device device : currentJsonSerialNumberDeviceMapping.values()) {
-                if (StringUtils.equalsIgnoreCase(device.accountName, serialOrName)) {
-                    return device;
-                }
-            }
-        }
-        return null;
+        return snapshot.findDeviceBySerialOrName(serialOrName);
     }
 
     public List<SmartHomeDevice> updateSmartHomeDeviceList() {
@@ -576,31 +935,14 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getLocalizedMessage());
         }
         if (devices != null) {
-            Map<String, Device> newJsonSerialDeviceMapping = new HashMap<>();
-            for (Device device : devices) {
-                String serialNumber = device.serialNumber;
-                if (serialNumber != null) {
-                    newJsonSerialDeviceMapping.put(serialNumber, device);
-                }
-
-            }
-            jsonSerialNumberDeviceMapping = newJsonSerialDeviceMapping;
+            List<Device> deviceList = devices;
+            WakeWord[] wakeWords = currentConnection.getWakeWords();
+            publishSnapshot(current -> current.withDevices(deviceList, wakeWords));
         }
-        WakeWord[] wakeWords = currentConnection.getWakeWords();
 
         synchronized (echoHandlers) {
             for (EchoHandler child : echoHandlers) {
-                String serialNumber = child.findSerialNumber();
-                String deviceWakeWord = null;
-                for (WakeWord wakeWord : wakeWords) {
-                    if (wakeWord != null) {
-                        if (StringUtils.equals(wakeWord.deviceSerialNumber, serialNumber)) {
-                            deviceWakeWord = wakeWord.wakeWord;
-                            break;
-                        }
-                    }
-                }
-                child.setDeviceAndUpdateThingState(this, findDeviceJson(child), deviceWakeWord);
+                child.setDeviceAndUpdateThingState(this, findDeviceJson(child));
             }
         }
         if (devices != null) {
@@ -654,6 +996,21 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         return this.connection;
     }
 
+    /**
+     * Returns the counters of the connection, the push event handling and the web socket, used for the statistics
+     * page
+     */
+    public Map<String, Long> getStatistics(Connection connection) {
+        Map<String, Long> statistics = connection.getStatistics();
+        PushEventCoalescer<PushEvent> pushEventCoalescer = this.pushEventCoalescer;
+        if (pushEventCoalescer != null) {
+            pushEventCoalescer.appendStatistics(statistics);
+        }
+        activityCache.appendStatistics(statistics);
+        webSocketBackoff.appendStatistics(statistics);
+        return statistics;
+    }
+
     public String getEnabledFlashBriefingsJson() {
         Connection currentConnection = this.connection;
         if (currentConnection == null) {
@@ -685,60 +1042,109 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
 
     @Override
     public void webSocketCommandReceived(JsonPushCommand pushCommand) {
+        // the handling may block for http requests, it must not run on the thread which reads the web socket
+        PushEventCoalescer<PushEvent> pushEventCoalescer = this.pushEventCoalescer;
+        if (pushEventCoalescer != null) {
+            pushEventCoalescer.submit(new PushEvent(pushCommand, findPushDeviceSerialNumber(pushCommand)));
+        }
+    }
+
+    /**
+     * A push command with the serial number of its device, which is read once when the command is received
+     */
+    private static class PushEvent {
+        final JsonPushCommand pushCommand;
+        final @Nullable String deviceSerialNumber;
+
+        PushEvent(JsonPushCommand pushCommand, @Nullable String deviceSerialNumber) {
+            this.pushCommand = pushCommand;
+            this.deviceSerialNumber = deviceSerialNumber;
+        }
+    }
+
+    private @Nullable String findPushDeviceSerialNumber(JsonPushCommand pushCommand) {
+        String payload = pushCommand.payload;
+        if ("PUSH_ACTIVITY".equals(pushCommand.command) || payload == null || !payload.startsWith("{")
+                || !payload.endsWith("}")) {
+            return null;
+        }
         try {
-            handleWebsocketCommand(pushCommand);
-        } catch (Exception e) {
-            // should never happen, but if the exception is going out of this function, the binding stop working.
-            logger.warn("handling of websockets fails: {}", e);
+            JsonCommandPayloadPushDevice devicePayload = gson.fromJson(payload, JsonCommandPayloadPushDevice.class);
+            DopplerId dopplerId = devicePayload.dopplerId;
+            return dopplerId != null ? dopplerId.deviceSerialNumber : null;
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the lane in which a push event is handled: the serial number of the device, activities and events
+     * without device have their own lanes
+     */
+    private @Nullable String getPushEventLane(PushEvent pushEvent) {
+        if ("PUSH_ACTIVITY".equals(pushEvent.pushCommand.command)) {
+            return "activity";
         }
+        String deviceSerialNumber = pushEvent.deviceSerialNumber;
+        return deviceSerialNumber != null ? "device:" + deviceSerialNumber : null;
     }
 
-    void handleWebsocketCommand(JsonPushCommand pushCommand) {
+    /**
+     * Returns the type under which push events of a lane are merged, activities are never merged
+     */
+    private @Nullable String getPushEventType(PushEvent pushEvent) {
+        String command = pushEvent.pushCommand.command;
+        return "PUSH_ACTIVITY".equals(command) ? null : command;
+    }
+
+    private void handleWebsocketCommand(PushEvent pushEvent) {
+        JsonPushCommand pushCommand = pushEvent.pushCommand;
         String command = pushCommand.command;
         if (command != null) {
             switch (command) {
                 case "PUSH_ACTIVITY":
                     handlePushActivity(pushCommand.payload);
                     return;
-                case "PUSH_DOPPLER_CONNECTION_CHANGE":
-                case "PUSH_BLUETOOTH_STATE_CHANGE":
-                    // refresh data 200ms after last command
-                    @Nullable
-                    ScheduledFuture<?> refreshDataDelayed = this.refreshAfterCommandJob;
-                    if (refreshDataDelayed != null) {
-                        refreshDataDelayed.cancel(false);
-                    }
-                    this.refreshAfterCommandJob = scheduler.schedule(this::refreshAfterCommand, 700,
-                            TimeUnit.MILLISECONDS);
-                    break;
                 case "PUSH_NOTIFICATION_CHANGE":
                     // Currently ignored
                     break;
                 default:
                     String payload = pushCommand.payload;
-                    if (payload != null && StringUtils.isNotEmpty(payload) && payload.startsWith("{")
-                            && payload.endsWith("}")) {
-                        JsonCommandPayloadPushDevice devicePayload = gson.fromJson(payload,
-                                JsonCommandPayloadPushDevice.class);
-                        @Nullable
-                        DopplerId dopplerId = devicePayload.dopplerId;
-                        if (dopplerId != null) {
-                            handlePushDeviceCommand(dopplerId, command, payload);
-                        }
+                    String deviceSerialNumber = pushEvent.deviceSerialNumber;
+                    EchoHandler echoHandler = null;
+                    if (deviceSerialNumber != null) {
+                        echoHandler = findEchoHandlerBySerialNumber(deviceSerialNumber);
+                    }
+                    // the echo handler applies the payload, only the missing part of the state is fetched
+                    PushRefresh refresh = PushRefresh.forCommand(command);
+                    if (echoHandler != null && payload != null) {
+                        notifyDeviceActivity(echoHandler);
+                        refresh = echoHandler.handlePushCommand(command, payload);
+                    }
+                    switch (refresh) {
+                        case BLUETOOTH:
+                            Connection connection = this.connection;
+                            if (connection != null) {
+                                connection.invalidateCache(Connection.CACHE_BLUETOOTH_STATES);
+                            }
+                            schedulePushRefresh(refresh);
+                            break;
+                        case DEVICE_LIST:
+                            schedulePushRefresh(refresh);
+                            break;
+                        case PLAYER:
+                            if (echoHandler != null) {
+                                echoHandler.refreshPlayerState();
+                            }
+                            break;
+                        default:
+                            break;
                     }
                     break;
             }
         }
     }
 
-    private void handlePushDeviceCommand(DopplerId dopplerId, String command, String payload) {
-        @Nullable
-        EchoHandler echoHandler = findEchoHandlerBySerialNumber(dopplerId.deviceSerialNumber);
-        if (echoHandler != null) {
-            echoHandler.handlePushCommand(command, payload);
-        }
-    }
-
     private void handlePushActivity(@Nullable String payload) {
         JsonCommandPayloadPushActivity pushActivity = gson.fromJson(payload, JsonCommandPayloadPushActivity.class);
 
@@ -751,19 +1157,20 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         if (connection == null || !connection.getIsLoggedIn()) {
             return;
         }
-        Activity[] activities = connection.getActivities(10, pushActivity.timestamp);
-        Activity currentActivity = null;
-        String search = key.registeredUserId + "#" + key.entryId;
-        for (Activity activity : activities) {
-            if (StringUtils.equals(activity.id, search)) {
-                currentActivity = activity;
-                break;
-            }
-        }
-        if (currentActivity == null) {
-            return;
+        // several push events for the same utterance are resolved with one request
+        activityCache.request(key.registeredUserId + "#" + key.entryId, pushActivity.timestamp,
+                this::handleActivity);
+    }
+
+    private @Nullable Activity @Nullable [] getActivities(int number, @Nullable Long startTime) {
+        Connection connection = this.connection;
+        if (connection == null || !connection.getIsLoggedIn()) {
+            return null;
         }
+        return connection.getActivities(number, startTime);
+    }
 
+    private void handleActivity(Activity currentActivity) {
         @Nullable
         SourceDeviceId @Nullable [] sourceDeviceIds = currentActivity.sourceDeviceIds;
         if (sourceDeviceIds != null) {
@@ -771,6 +1178,7 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
                 if (sourceDeviceId != null) {
                     EchoHandler echoHandler = findEchoHandlerBySerialNumber(sourceDeviceId.serialNumber);
                     if (echoHandler != null) {
+                        notifyDeviceActivity(echoHandler);
                         echoHandler.handlePushActivity(currentActivity);
                     }
                 }
@@ -778,7 +1186,56 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         }
     }
 
-    void refreshAfterCommand() {
-        refreshData();
+    /**
+     * Schedules a refresh of the data affected by a push message. The refresh waits for further push messages,
+     * because the server needs some time until the new state can be queried.
+     */
+    private void schedulePushRefresh(PushRefresh refresh) {
+        synchronized (pendingPushRefreshes) {
+            pendingPushRefreshes.add(refresh);
+            @Nullable
+            ScheduledFuture<?> pushRefreshJob = this.pushRefreshJob;
+            if (pushRefreshJob != null) {
+                pushRefreshJob.cancel(false);
+            }
+            this.pushRefreshJob = scheduler.schedule(this::executePushRefresh, 700, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void executePushRefresh() {
+        Set<PushRefresh> refreshes;
+        synchronized (pendingPushRefreshes) {
+            refreshes = EnumSet.copyOf(pendingPushRefreshes);
+            pendingPushRefreshes.clear();
+            this.pushRefreshJob = null;
+        }
+        try {
+            if (refreshes.contains(PushRefresh.DEVICE_LIST)) {
+                updateDeviceList();
+            }
+            if (refreshes.contains(PushRefresh.BLUETOOTH)) {
+                refreshBluetoothStates();
+            }
+        } catch (HttpException | JsonSyntaxException | ConnectionException e) {
+            logger.debug("refresh after push message fails {}", e);
+        } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
+            logger.error("refresh after push message fails with unexpected error {}", e);
+        }
+    }
+
+    private void refreshBluetoothStates() {
+        Connection currentConnection = this.connection;
+        if (currentConnection == null || !currentConnection.getIsLoggedIn()) {
+            return;
+        }
+        JsonBluetoothStates states = currentConnection.getBluetoothConnectionStates();
+        AccountSnapshot currentSnapshot = publishSnapshot(current -> current.withBluetoothStates(states));
+        List<EchoHandler> handlers;
+        synchronized (echoHandlers) {
+            handlers = new ArrayList<>(echoHandlers);
+        }
+        for (EchoHandler handler : handlers) {
+            handler.updateBluetoothState(currentSnapshot.findBluetoothState(handler.findSerialNumber()));
+        }
     }
 }
@@ -54,6 +54,10 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonAscendingAlarm.A
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.BluetoothState;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.PairedDevice;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonCommandPayloadPushAudioPlayerState;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonCommandPayloadPushBluetoothStateChange;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonCommandPayloadPushMediaChange;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonCommandPayloadPushMediaQueueChange;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonCommandPayloadPushVolumeChange;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDeviceNotificationState.DeviceNotificationState;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDevices.Device;
@@ -69,7 +73,7 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.Play
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo.Progress;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo.Provider;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo.Volume;
-import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists.PlayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -91,7 +95,6 @@ public class EchoHandler extends BaseThingHandler {
     private @Nullable ScheduledFuture<?> ignoreVolumeChange;
     private @Nullable ScheduledFuture<?> updateProgressJob;
     private Object progressLock = new Object();
-    private @Nullable String wakeWord;
     private @Nullable String lastKnownRadioStationId;
     private @Nullable String lastKnownBluetoothMAC;
     private @Nullable String lastKnownAmazonMusicId;
@@ -99,6 +102,8 @@ public class EchoHandler extends BaseThingHandler {
     private boolean isPlaying = false;
     private boolean isPaused = false;
     private int lastKnownVolume = 25;
+    private volatile String playerStateSummary = "";
+    private @Nullable String lastMediaReferenceId;
     private int textToSpeechVolume = 0;
     private @Nullable BluetoothState bluetoothState;
     private boolean disableUpdate = false;
@@ -110,8 +115,8 @@ public class EchoHandler extends BaseThingHandler {
     private boolean updateStartCommand = true;
     private @Nullable Integer noticationVolumeLevel;
     private @Nullable Boolean ascendingAlarm;
-    private @Nullable JsonPlaylists playLists;
-    private @Nullable JsonNotificationSound @Nullable [] alarmSounds;
+    private @Nullable List<PlayList> playLists;
+    private @Nullable List<JsonNotificationSound> alarmSounds;
     private @Nullable List<JsonMusicProvider> musicProviders;
 
     private @Nullable JsonNotificationResponse currentNotification;
@@ -132,18 +137,14 @@ public class EchoHandler extends BaseThingHandler {
         if (bridge != null) {
             AccountHandler account = (AccountHandler) bridge.getHandler();
             if (account != null) {
-                setDeviceAndUpdateThingState(account, this.device, null);
+                setDeviceAndUpdateThingState(account, this.device);
                 account.addEchoHandler(this);
             }
         }
     }
 
-    public boolean setDeviceAndUpdateThingState(AccountHandler accountHandler, @Nullable Device device,
-            @Nullable String wakeWord) {
+    public boolean setDeviceAndUpdateThingState(AccountHandler accountHandler, @Nullable Device device) {
         this.account = accountHandler;
-        if (wakeWord != null) {
-            this.wakeWord = wakeWord;
-        }
         if (device == null) {
             updateStatus(ThingStatus.UNKNOWN);
             return false;
@@ -182,11 +183,11 @@ public class EchoHandler extends BaseThingHandler {
         return this.bluetoothState;
     }
 
-    public @Nullable JsonPlaylists findPlaylists() {
+    public @Nullable List<PlayList> findPlaylists() {
         return this.playLists;
     }
 
-    public @Nullable JsonNotificationSound @Nullable [] findAlarmSounds() {
+    public @Nullable List<JsonNotificationSound> findAlarmSounds() {
         return this.alarmSounds;
     }
 
@@ -622,6 +623,9 @@ public class EchoHandler extends BaseThingHandler {
             if (waitForUpdate < 0) {
                 return;
             }
+            if (!(command instanceof RefreshType)) {
+                account.notifyDeviceActivity(this);
+            }
             // force update of the state
             this.disableUpdate = true;
             final boolean bluetoothRefresh = needBluetoothRefresh;
@@ -720,9 +724,86 @@ public class EchoHandler extends BaseThingHandler {
 
     public void updateState(AccountHandler accountHandler, @Nullable Device device,
             @Nullable BluetoothState bluetoothState, @Nullable DeviceNotificationState deviceNotificationState,
-            @Nullable AscendingAlarmModel ascendingAlarmModel, @Nullable JsonPlaylists playlists,
-            @Nullable JsonNotificationSound @Nullable [] alarmSounds,
-            @Nullable List<JsonMusicProvider> musicProviders) {
+            @Nullable AscendingAlarmModel ascendingAlarmModel, @Nullable List<PlayList> playlists,
+            @Nullable List<JsonNotificationSound> alarmSounds, @Nullable List<JsonMusicProvider> musicProviders) {
+        updateState(accountHandler, device, bluetoothState, deviceNotificationState, ascendingAlarmModel, playlists,
+                alarmSounds, musicProviders, null);
+    }
+
+    /**
+     * Fetches the player and media state of the device without updating the channels. The account handler fetches
+     * the states of all devices in parallel and applies them afterwards with updateState.
+     */
+    public EchoPlayerState fetchPlayerState(Connection connection, Device device) {
+        JsonPlayerState playerState = null;
+        try {
+            playerState = connection.getPlayer(device);
+        } catch (HttpException e) {
+            if (e.getCode() == 400) {
+                // Ignore
+            } else {
+                logger.info("getPlayer fails: {}", e);
+            }
+        } catch (IOException | URISyntaxException e) {
+            logger.info("getPlayer fails: {}", e);
+        }
+        return fetchPlayerState(connection, device, playerState != null ? playerState.playerInfo : null);
+    }
+
+    /**
+     * Completes the player info of a device (e.g. from the media sessions of the account) with its media state
+     */
+    public EchoPlayerState fetchPlayerState(Connection connection, Device device, @Nullable PlayerInfo playerInfo) {
+        String musicProviderId = getMusicProviderId(playerInfo != null ? playerInfo.provider : null);
+
+        JsonMediaState mediaState = null;
+        boolean mediaStateRejected = false;
+        try {
+            if (StringUtils.equalsIgnoreCase(musicProviderId, "AMAZON_MUSIC")
+                    || StringUtils.equalsIgnoreCase(musicProviderId, "TUNEIN")) {
+                mediaState = connection.getMediaState(device);
+            }
+        } catch (HttpException e) {
+            if (e.getCode() == 400) {
+                mediaStateRejected = true;
+            } else {
+                logger.info("getMediaState fails: {}", e);
+            }
+        } catch (IOException | URISyntaxException e) {
+            logger.info("getMediaState fails: {}", e);
+        }
+        return new EchoPlayerState(playerInfo, mediaState, mediaStateRejected);
+    }
+
+    private static @Nullable String getMusicProviderId(@Nullable Provider provider) {
+        String musicProviderId = provider != null ? provider.providerName : null;
+        // Map the music provider id to the one used for starting music with voice command
+        if (musicProviderId != null) {
+            musicProviderId = musicProviderId.toUpperCase();
+
+            if (StringUtils.equals(musicProviderId, "AMAZON MUSIC")) {
+                musicProviderId = "AMAZON_MUSIC";
+            }
+            if (StringUtils.equals(musicProviderId, "CLOUD_PLAYER")) {
+                musicProviderId = "AMAZON_MUSIC";
+            }
+            if (StringUtils.startsWith(musicProviderId, "TUNEIN")) {
+                musicProviderId = "TUNEIN";
+            }
+        }
+        return musicProviderId;
+    }
+
+    /**
+     * Updates the channels of the device
+     *
+     * @param playerState the prefetched player state or null, if it should be fetched now
+     */
+    public void updateState(AccountHandler accountHandler, @Nullable Device device,
+            @Nullable BluetoothState bluetoothState, @Nullable DeviceNotificationState deviceNotificationState,
+            @Nullable AscendingAlarmModel ascendingAlarmModel, @Nullable List<PlayList> playlists,
+            @Nullable List<JsonNotificationSound> alarmSounds, @Nullable List<JsonMusicProvider> musicProviders,
+            @Nullable EchoPlayerState playerState) {
         try {
             this.logger.debug("Handle updateState {}", this.getThing().getUID().getAsString());
 
@@ -741,7 +822,7 @@ public class EchoHandler extends BaseThingHandler {
             if (musicProviders != null) {
                 this.musicProviders = musicProviders;
             }
-            if (!setDeviceAndUpdateThingState(accountHandler, device, null)) {
+            if (!setDeviceAndUpdateThingState(accountHandler, device)) {
                 this.logger.debug("Handle updateState {} aborted: Not online", this.getThing().getUID().getAsString());
                 return;
             }
@@ -759,50 +840,25 @@ public class EchoHandler extends BaseThingHandler {
                 return;
             }
 
-            PlayerInfo playerInfo = null;
+            if (playerState == null) {
+                playerState = fetchPlayerState(connection, device);
+            }
+            PlayerInfo playerInfo = playerState.getPlayerInfo();
             Provider provider = null;
             InfoText infoText = null;
             MainArt mainArt = null;
-            String musicProviderId = null;
             Progress progress = null;
-            try {
-                JsonPlayerState playerState = connection.getPlayer(device);
-                playerInfo = playerState.playerInfo;
-                if (playerInfo != null) {
-                    infoText = playerInfo.infoText;
-                    if (infoText == null) {
-                        infoText = playerInfo.miniInfoText;
-                    }
-                    mainArt = playerInfo.mainArt;
-                    provider = playerInfo.provider;
-                    if (provider != null) {
-                        musicProviderId = provider.providerName;
-                        // Map the music provider id to the one used for starting music with voice command
-                        if (musicProviderId != null) {
-                            musicProviderId = musicProviderId.toUpperCase();
-
-                            if (StringUtils.equals(musicProviderId, "AMAZON MUSIC")) {
-                                musicProviderId = "AMAZON_MUSIC";
-                            }
-                            if (StringUtils.equals(musicProviderId, "CLOUD_PLAYER")) {
-                                musicProviderId = "AMAZON_MUSIC";
-                            }
-                            if (StringUtils.startsWith(musicProviderId, "TUNEIN")) {
-                                musicProviderId = "TUNEIN";
-                            }
-                        }
-                    }
-                    progress = playerInfo.progress;
-                }
-            } catch (HttpException e) {
-                if (e.getCode() == 400) {
-                    // Ignore
-                } else {
-                    logger.info("getPlayer fails: {}", e);
+            if (playerInfo != null) {
+                infoText = playerInfo.infoText;
+                if (infoText == null) {
+                    infoText = playerInfo.miniInfoText;
                 }
-            } catch (IOException | URISyntaxException e) {
-                logger.info("getPlayer fails: {}", e);
+                mainArt = playerInfo.mainArt;
+                provider = playerInfo.provider;
+                progress = playerInfo.progress;
+                lastMediaReferenceId = playerInfo.mediaId;
             }
+            String musicProviderId = getMusicProviderId(provider);
             // check playing
             isPlaying = (playerInfo != null && StringUtils.equals(playerInfo.state, "PLAYING"));
             // || (mediaState != null && StringUtils.equals(mediaState.currentState, "PLAYING"));
@@ -840,24 +896,9 @@ public class EchoHandler extends BaseThingHandler {
                 updateMediaProgress(true);
             }
 
-            JsonMediaState mediaState = null;
-            try {
-
-                if (StringUtils.equalsIgnoreCase(musicProviderId, "AMAZON_MUSIC")
-                        || StringUtils.equalsIgnoreCase(musicProviderId, "TUNEIN")) {
-                    mediaState = connection.getMediaState(device);
-                }
-
-            } catch (HttpException e) {
-                if (e.getCode() == 400) {
-
-                    updateState(CHANNEL_RADIO_STATION_ID, new StringType(""));
-
-                } else {
-                    logger.info("getMediaState fails: {}", e);
-                }
-            } catch (IOException | URISyntaxException e) {
-                logger.info("getMediaState fails: {}", e);
+            JsonMediaState mediaState = playerState.getMediaState();
+            if (playerState.isMediaStateRejected()) {
+                updateState(CHANNEL_RADIO_STATION_ID, new StringType(""));
             }
 
             // handle music provider id
@@ -879,34 +920,6 @@ public class EchoHandler extends BaseThingHandler {
                 amazonMusic = true;
             }
 
-            // handle bluetooth
-            String bluetoothMAC = "";
-            String bluetoothDeviceName = "";
-            boolean bluetoothIsConnected = false;
-            if (bluetoothState != null) {
-                this.bluetoothState = bluetoothState;
-                PairedDevice[] pairedDeviceList = bluetoothState.pairedDeviceList;
-                if (pairedDeviceList != null) {
-                    for (PairedDevice paired : pairedDeviceList) {
-                        if (paired == null) {
-                            continue;
-                        }
-                        if (paired.connected && paired.address != null) {
-                            bluetoothIsConnected = true;
-                            bluetoothMAC = paired.address;
-                            bluetoothDeviceName = paired.friendlyName;
-                            if (StringUtils.isEmpty(bluetoothDeviceName)) {
-                                bluetoothDeviceName = paired.address;
-                            }
-                            break;
-                        }
-                    }
-                }
-            }
-            if (StringUtils.isNotEmpty(bluetoothMAC)) {
-                lastKnownBluetoothMAC = bluetoothMAC;
-            }
-
             // handle radio
             boolean isRadio = false;
             if (mediaState != null && StringUtils.isNotEmpty(mediaState.radioStationId)) {
@@ -1036,11 +1049,9 @@ public class EchoHandler extends BaseThingHandler {
             }
             updateState(CHANNEL_SUBTITLE1, new StringType(subTitle1));
             updateState(CHANNEL_SUBTITLE2, new StringType(subTitle2));
-            if (bluetoothState != null) {
-                updateState(CHANNEL_BLUETOOTH, bluetoothIsConnected ? OnOffType.ON : OnOffType.OFF);
-                updateState(CHANNEL_BLUETOOTH_MAC, new StringType(bluetoothMAC));
-                updateState(CHANNEL_BLUETOOTH_DEVICE_NAME, new StringType(bluetoothDeviceName));
-            }
+            updateBluetoothState(bluetoothState);
+            playerStateSummary = isPlaying + "|" + isPaused + "|" + providerDisplayName + "|" + title + "|"
+                    + subTitle1 + "|" + subTitle2 + "|" + volume;
 
             updateState(CHANNEL_ASCENDING_ALARM,
                     ascendingAlarm != null ? (ascendingAlarm ? OnOffType.ON : OnOffType.OFF) : UnDefType.UNDEF);
@@ -1059,6 +1070,79 @@ public class EchoHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Updates the bluetooth channels, nothing is changed if the bluetooth state is not known
+     */
+    public void updateBluetoothState(@Nullable BluetoothState bluetoothState) {
+        if (bluetoothState == null) {
+            return;
+        }
+        this.bluetoothState = bluetoothState;
+        String bluetoothMAC = "";
+        String bluetoothDeviceName = "";
+        boolean bluetoothIsConnected = false;
+        PairedDevice[] pairedDeviceList = bluetoothState.pairedDeviceList;
+        if (pairedDeviceList != null) {
+            for (PairedDevice paired : pairedDeviceList) {
+                if (paired == null) {
+                    continue;
+                }
+                if (paired.connected && paired.address != null) {
+                    bluetoothIsConnected = true;
+                    bluetoothMAC = paired.address;
+                    bluetoothDeviceName = paired.friendlyName;
+                    if (StringUtils.isEmpty(bluetoothDeviceName)) {
+                        bluetoothDeviceName = paired.address;
+                    }
+                    break;
+                }
+            }
+        }
+        if (StringUtils.isNotEmpty(bluetoothMAC)) {
+            lastKnownBluetoothMAC = bluetoothMAC;
+        }
+        updateState(CHANNEL_BLUETOOTH, bluetoothIsConnected ? OnOffType.ON : OnOffType.OFF);
+        updateState(CHANNEL_BLUETOOTH_MAC, new StringType(bluetoothMAC));
+        updateState(CHANNEL_BLUETOOTH_DEVICE_NAME, new StringType(bluetoothDeviceName));
+    }
+
+    /**
+     * Refreshes the player state after a push message, which did not contain the complete state
+     */
+    public void refreshPlayerState() {
+        this.disableUpdate = false;
+        refreshState();
+    }
+
+    /**
+     * Refreshes the player state, called by the account handler if the device is due for polling
+     */
+    public void refreshState() {
+        AccountHandler account = this.account;
+        Device device = this.device;
+        if (account != null && device != null) {
+            updateState(account, device, null, null, null, null, null, null);
+        }
+    }
+
+    public boolean isPlaying() {
+        return this.isPlaying;
+    }
+
+    /**
+     * Returns a summary of the player channels of the last update, used to detect changes by a poll
+     */
+    public String getPlayerStateSummary() {
+        return this.playerStateSummary;
+    }
+
+    public void updatePollingInterval(long interval) {
+        String value = Long.toString(interval / 1000);
+        if (!value.equals(getThing().getProperties().get(DEVICE_PROPERTY_POLLING_INTERVAL))) {
+            updateProperty(DEVICE_PROPERTY_POLLING_INTERVAL, value);
+        }
+    }
+
     private void updateMediaProgress() {
         updateMediaProgress(false);
     }
@@ -1100,7 +1184,8 @@ public class EchoHandler extends BaseThingHandler {
         String spokenText = description.summary;
         if (spokenText != null && StringUtils.isNotEmpty(spokenText)) {
             // remove wake word
-            String wakeWordPrefix = this.wakeWord;
+            AccountHandler account = this.account;
+            String wakeWordPrefix = account != null ? account.getSnapshot().findWakeWord(findSerialNumber()) : null;
             if (wakeWordPrefix != null) {
                 wakeWordPrefix += " ";
                 if (StringUtils.startsWithIgnoreCase(spokenText, wakeWordPrefix)) {
@@ -1120,7 +1205,12 @@ public class EchoHandler extends BaseThingHandler {
         this.ignoreVolumeChange = null;
     }
 
-    public void handlePushCommand(String command, String payload) {
+    /**
+     * Applies the payload of a push message to the channels
+     *
+     * @return the refresh which is still necessary, because the payload does not contain the complete state
+     */
+    public PushRefresh handlePushCommand(String command, String payload) {
         this.logger.debug("Handle push command {}", command);
         switch (command) {
             case "PUSH_VOLUME_CHANGE":
@@ -1134,22 +1224,92 @@ public class EchoHandler extends BaseThingHandler {
                     updateState(CHANNEL_VOLUME, new PercentType(0));
                 } else if (volumeSetting != null) {
                     if (ignoreVolumeChange != null) {
-                        return;
+                        return PushRefresh.NONE;
                     }
                     lastKnownVolume = volumeSetting;
                     updateState(CHANNEL_VOLUME, new PercentType(lastKnownVolume));
                 }
-                break;
-            case "PUSH_EQUALIZER_STATE_CHANGE":
-                // Currently ignored
-                break;
+                return PushRefresh.NONE;
+            case "PUSH_AUDIO_PLAYER_STATE":
+                return handlePushAudioPlayerState(
+                        gson.fromJson(payload, JsonCommandPayloadPushAudioPlayerState.class));
+            case "PUSH_MEDIA_CHANGE":
+                // a new media is playing, title and image are only available from the player
+                JsonCommandPayloadPushMediaChange mediaChange = gson.fromJson(payload,
+                        JsonCommandPayloadPushMediaChange.class);
+                lastMediaReferenceId = mediaChange.mediaReferenceId;
+                return PushRefresh.PLAYER;
+            case "PUSH_MEDIA_QUEUE_CHANGE":
+                JsonCommandPayloadPushMediaQueueChange queueChange = gson.fromJson(payload,
+                        JsonCommandPayloadPushMediaQueueChange.class);
+                String playBackOrder = queueChange.playBackOrder;
+                if (playBackOrder == null) {
+                    return PushRefresh.PLAYER;
+                }
+                updateState(CHANNEL_SHUFFLE,
+                        StringUtils.startsWith(playBackOrder, "SHUFFLE") ? OnOffType.ON : OnOffType.OFF);
+                return PushRefresh.NONE;
+            case "PUSH_CONTENT_FOCUS_CHANGE":
+                // the player changes of the device are reported by separate push messages
+                return PushRefresh.NONE;
+            case "PUSH_BLUETOOTH_STATE_CHANGE":
+                return handlePushBluetoothStateChange(
+                        gson.fromJson(payload, JsonCommandPayloadPushBluetoothStateChange.class));
             default:
-                AccountHandler account = this.account;
-                Device device = this.device;
-                if (account != null && device != null) {
-                    this.disableUpdate = false;
-                    updateState(account, device, null, null, null, null, null, null);
+                return PushRefresh.forCommand(command);
+        }
+    }
+
+    private PushRefresh handlePushAudioPlayerState(JsonCommandPayloadPushAudioPlayerState audioPlayerState) {
+        String mediaReferenceId = audioPlayerState.mediaReferenceId;
+        if (mediaReferenceId == null || !mediaReferenceId.equals(lastMediaReferenceId)) {
+            // state of an unknown media
+            lastMediaReferenceId = mediaReferenceId;
+            return PushRefresh.PLAYER;
+        }
+        String state = audioPlayerState.audioPlayerState;
+        synchronized (progressLock) {
+            if ("PLAYING".equals(state)) {
+                if (!isPlaying && mediaStartMs > 0) {
+                    // continue the progress where it was paused
+                    mediaStartMs = System.currentTimeMillis() - mediaProgressMs;
+                    if (updateProgressJob == null) {
+                        updateProgressJob = scheduler.scheduleWithFixedDelay(this::updateMediaProgress, 1000, 1000,
+                                TimeUnit.MILLISECONDS);
+                    }
+                }
+                isPlaying = true;
+                isPaused = false;
+            } else if ("PAUSED".equals(state)) {
+                if (isPlaying && mediaStartMs > 0) {
+                    mediaProgressMs = System.currentTimeMillis() - mediaStartMs;
                 }
+                stopProgressTimer();
+                isPlaying = false;
+                isPaused = true;
+            } else {
+                // finished or failed, the player knows what comes next
+                return PushRefresh.PLAYER;
+            }
+            updateMediaProgress();
+        }
+        updateState(CHANNEL_PLAYER, isPlaying ? PlayPauseType.PLAY : PlayPauseType.PAUSE);
+        return PushRefresh.NONE;
+    }
+
+    private PushRefresh handlePushBluetoothStateChange(JsonCommandPayloadPushBluetoothStateChange bluetoothChange) {
+        Boolean success = bluetoothChange.bluetoothEventSuccess;
+        if (success != null && success && "DEVICE_DISCONNECTED".equals(bluetoothChange.bluetoothEvent)) {
+            updateState(CHANNEL_BLUETOOTH, OnOffType.OFF);
+            updateState(CHANNEL_BLUETOOTH_MAC, new StringType(""));
+            updateState(CHANNEL_BLUETOOTH_DEVICE_NAME, new StringType(""));
+            // the cached bluetooth states and the account snapshot still show the device as connected
+            return PushRefresh.BLUETOOTH;
+        }
+        if (success != null && success && "DEVICE_CONNECTED".equals(bluetoothChange.bluetoothEvent)) {
+            // address and name of the connected device are not part of the payload
+            updateState(CHANNEL_BLUETOOTH, OnOffType.ON);
         }
+        return PushRefresh.BLUETOOTH;
     }
 }
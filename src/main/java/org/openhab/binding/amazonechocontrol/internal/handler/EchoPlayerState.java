@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal.handler;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMediaState;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo;
+
+/**
+ * The {@link EchoPlayerState} holds the player and media state of an echo device, which are fetched from the server
+ * before they are applied to the channels of the {@link EchoHandler}
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class EchoPlayerState {
+    private final @Nullable PlayerInfo playerInfo;
+    private final @Nullable JsonMediaState mediaState;
+    private final boolean mediaStateRejected;
+
+    public EchoPlayerState(@Nullable PlayerInfo playerInfo, @Nullable JsonMediaState mediaState,
+            boolean mediaStateRejected) {
+        this.playerInfo = playerInfo;
+        this.mediaState = mediaState;
+        this.mediaStateRejected = mediaStateRejected;
+    }
+
+    public @Nullable PlayerInfo getPlayerInfo() {
+        return playerInfo;
+    }
+
+    public @Nullable JsonMediaState getMediaState() {
+        return mediaState;
+    }
+
+    /**
+     * @return true, if the server answered the media state request with 400 (no media session on the device)
+     */
+    public boolean isMediaStateRejected() {
+        return mediaStateRejected;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal.handler;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link PushRefresh} maps the command of a push message to the smallest refresh which brings the affected
+ * channels up to date, instead of refreshing all data of the account.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public enum PushRefresh {
+    /** The payload contains the new state or the change is not shown in a channel: no request */
+    NONE,
+    /** The bluetooth connection of a device has changed: one request for the bluetooth states */
+    BLUETOOTH,
+    /** A device went online or offline: one request for the device list */
+    DEVICE_LIST,
+    /** The player of a device has changed: one request for the player and one for the media state of the device */
+    PLAYER;
+
+    public static PushRefresh forCommand(String command) {
+        switch (command) {
+            case "PUSH_VOLUME_CHANGE":
+            case "PUSH_EQUALIZER_STATE_CHANGE":
+            case "PUSH_NOTIFICATION_CHANGE":
+                return NONE;
+            case "PUSH_BLUETOOTH_STATE_CHANGE":
+                return BLUETOOTH;
+            case "PUSH_DOPPLER_CONNECTION_CHANGE":
+                return DEVICE_LIST;
+            default:
+                return PLAYER;
+        }
+    }
+}
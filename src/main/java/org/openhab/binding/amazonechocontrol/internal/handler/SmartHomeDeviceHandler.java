@@ -19,8 +19,6 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.Nullable;
@@ -38,6 +36,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.amazonechocontrol.internal.Connection;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonSmartHomeDevices.SmartHomeDevice;
+import org.openhab.binding.amazonechocontrol.internal.smarthome.ApplianceStateSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,9 +50,9 @@ public class SmartHomeDeviceHandler extends BaseThingHandler {
 
     private final Logger logger = LoggerFactory.getLogger(SmartHomeDeviceHandler.class);
 
-    private @Nullable ScheduledFuture<?> updateStateJob;
     private @Nullable Connection connection;
     private @Nullable SmartHomeDevice smartHomeDevice;
+    private @Nullable ApplianceStateSnapshot lastApplianceState;
 
     Storage<String> stateStorage;
 
@@ -83,57 +82,11 @@ public class SmartHomeDeviceHandler extends BaseThingHandler {
             AccountHandler account = (AccountHandler) bridge.getHandler();
             this.accountHandler = account;
             if (account != null) {
+                // the account handler polls the states of all smart home devices
                 account.addSmartHomeDeviceHandler(this);
                 updateStatus(ThingStatus.ONLINE);
             }
-
-            Runnable runnable = new Runnable() {
-                @Override
-                public void run() {
-                    if (account != null) {
-                        List<Thing> things = account.getThing().getThings();
-                        for (Thing thing : things) {
-                            try {
-                                String state = null;
-                                int brightness = -1;
-                                String color = null;
-                                connection = accountHandler.findConnection();
-                                if (thing.getProperties().keySet().contains(DEVICE_PROPERTY_LIGHT_SUBDEVICE + 0)) {
-                                    state = connection.getLightGroupState(thing);
-                                    brightness = connection.getLightGroupBrightness(thing);
-                                } else {
-                                    state = connection.getBulbState(thing);
-                                    brightness = connection.getBulbBrightness(thing);
-                                    color = connection.getBulbColor(thing);
-                                }
-                                if (state != null) {
-                                    updateBulbState(thing.getChannel(CHANNEL_LIGHT_STATE).getUID(), state);
-                                }
-                                if (brightness != -1) {
-                                    updateBrightness(thing.getChannel(CHANNEL_LIGHT_BRIGHTNESS).getUID(), brightness);
-                                }
-                                if (color != null) {
-                                    updateColor(thing.getChannel(CHANNEL_LIGHT_COLOR).getUID(), color);
-                                }
-                            } catch (IOException | URISyntaxException e) {
-                                logger.error(e.getMessage());
-                            }
-                        }
-                    }
-                }
-            };
-            updateStateJob = scheduler.scheduleWithFixedDelay(runnable, 0, 30, TimeUnit.SECONDS);
-        }
-    }
-
-    @Override
-    public void dispose() {
-        ScheduledFuture<?> updateStateJob = this.updateStateJob;
-        this.updateStateJob = null;
-        if (updateStateJob != null) {
-            updateStateJob.cancel(false);
         }
-        super.dispose();
     }
 
     @Override
@@ -225,6 +178,9 @@ public class SmartHomeDeviceHandler extends BaseThingHandler {
             if (waitForUpdate < 0) {
                 return;
             }
+            if (!(command instanceof RefreshType)) {
+                accountHandler.notifyDeviceActivity(this);
+            }
 
             if (command instanceof RefreshType) {
                 waitForUpdate = 0;
@@ -240,6 +196,80 @@ public class SmartHomeDeviceHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Returns the ids of the appliance of a light or of the lights of a light group
+     */
+    public List<String> findApplianceIds() {
+        Map<String, String> props = this.thing.getProperties();
+        List<String> applianceIds = new ArrayList<>();
+        if (props.containsKey(DEVICE_PROPERTY_APPLIANCE_ID + "0")) {
+            for (int counter = 0; props.containsKey(DEVICE_PROPERTY_APPLIANCE_ID + counter); counter++) {
+                applianceIds.add(props.get(DEVICE_PROPERTY_APPLIANCE_ID + counter));
+            }
+        } else {
+            String applianceId = props.get(DEVICE_PROPERTY_APPLIANCE_ID);
+            if (applianceId != null) {
+                applianceIds.add(applianceId);
+            }
+        }
+        return applianceIds;
+    }
+
+    /**
+     * Updates the channels from the polled appliance states
+     *
+     * @return true, if the state of the thing has changed since the last poll
+     */
+    public boolean updateApplianceStates(Map<String, ApplianceStateSnapshot> applianceStates) {
+        List<ApplianceStateSnapshot> lightStates = new ArrayList<>();
+        for (String applianceId : findApplianceIds()) {
+            ApplianceStateSnapshot lightState = applianceStates.get(applianceId);
+            if (lightState != null) {
+                lightStates.add(lightState);
+            }
+        }
+        ApplianceStateSnapshot applianceState;
+        if (this.thing.getProperties().containsKey(DEVICE_PROPERTY_LIGHT_SUBDEVICE + 0)) {
+            applianceState = ApplianceStateSnapshot.combine(lightStates);
+        } else {
+            applianceState = lightStates.isEmpty() ? null : lightStates.get(0);
+        }
+        if (applianceState == null) {
+            return false;
+        }
+        ApplianceStateSnapshot lastApplianceState = this.lastApplianceState;
+        this.lastApplianceState = applianceState;
+        updateLightChannels(applianceState);
+        return lastApplianceState != null && !applianceState.hasSameState(lastApplianceState);
+    }
+
+    public void updatePollingInterval(long interval) {
+        String value = Long.toString(interval / 1000);
+        if (!value.equals(this.thing.getProperties().get(DEVICE_PROPERTY_POLLING_INTERVAL))) {
+            updateProperty(DEVICE_PROPERTY_POLLING_INTERVAL, value);
+        }
+    }
+
+    private void updateLightChannels(ApplianceStateSnapshot applianceState) {
+        boolean isGroup = this.thing.getProperties().containsKey(DEVICE_PROPERTY_LIGHT_SUBDEVICE + 0);
+        String state = applianceState.getPowerState();
+        if (state != null) {
+            updateBulbState(new ChannelUID(thing.getUID(), CHANNEL_LIGHT_STATE), state);
+        }
+        Integer brightness = applianceState.getBrightness();
+        if (brightness == null && !isGroup) {
+            // lights without dimmer are always on full brightness
+            brightness = 100;
+        }
+        if (brightness != null) {
+            updateBrightness(new ChannelUID(thing.getUID(), CHANNEL_LIGHT_BRIGHTNESS), brightness);
+        }
+        String color = applianceState.getColor();
+        if (color != null && !isGroup) {
+            updateColor(new ChannelUID(thing.getUID(), CHANNEL_LIGHT_COLOR), color);
+        }
+    }
+
     public void updateBulbState(ChannelUID channelUID, String command) {
         if (channelUID == null) {
             logger.error("No channelUID specified. Could not update state.");
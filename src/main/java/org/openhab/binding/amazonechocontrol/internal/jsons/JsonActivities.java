@@ -27,6 +27,8 @@ import com.google.gson.JsonSyntaxException;
 @NonNullByDefault
 public class JsonActivities {
 
+    private static final Gson GSON = new Gson();
+
     public @Nullable Activity @Nullable [] activities;
 
     public class Activity {
@@ -65,9 +67,8 @@ public class JsonActivities {
             if (StringUtils.isEmpty(description) || !description.startsWith("{") || !description.endsWith("}")) {
                 return new Description();
             }
-            Gson gson = new Gson();
             try {
-                return gson.fromJson(description, Description.class);
+                return GSON.fromJson(description, Description.class);
             } catch (JsonSyntaxException e) {
                 return new Description();
             }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal.jsons;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo;
+
+/**
+ * The {@link JsonMediaSessions} encapsulate the GSON data of the media sessions of all devices of an account
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class JsonMediaSessions {
+    public @Nullable MediaSession @Nullable [] mediaSessionList;
+
+    public class MediaSession {
+        public @Nullable String clusterId;
+        public @Nullable Endpoint @Nullable [] endpointList;
+        public @Nullable PlayerInfo nowPlayingData;
+    }
+
+    public class Endpoint {
+        public @Nullable EndpointId id;
+        public @Nullable String friendlyName;
+    }
+
+    public class EndpointId {
+        public @Nullable String deviceSerialNumber;
+        public @Nullable String deviceType;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal.smarthome;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * The {@link ApplianceStateSnapshot} holds the state of one smart home appliance (or the combined state of a light
+ * group) decoded from one phoenix state response
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ApplianceStateSnapshot {
+    private final @Nullable String powerState;
+    private final @Nullable Integer brightness;
+    private final @Nullable String color;
+    private final @Nullable Integer colorTemperature;
+    private final @Nullable Boolean reachable;
+    private final long timestamp;
+
+    public ApplianceStateSnapshot(@Nullable String powerState, @Nullable Integer brightness, @Nullable String color,
+            @Nullable Integer colorTemperature, @Nullable Boolean reachable, long timestamp) {
+        this.powerState = powerState;
+        this.brightness = brightness;
+        this.color = color;
+        this.colorTemperature = colorTemperature;
+        this.reachable = reachable;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Creates the snapshot from the capability states of an appliance
+     */
+    public static ApplianceStateSnapshot fromCapabilityStates(JsonArray capabilityStates, long timestamp) {
+        String powerState = null;
+        Integer brightness = null;
+        String color = null;
+        Integer colorTemperature = null;
+        Boolean reachable = null;
+        for (JsonElement capabilityState : capabilityStates) {
+            if (!capabilityState.isJsonObject()) {
+                continue;
+            }
+            JsonObject capability = capabilityState.getAsJsonObject();
+            JsonElement namespace = capability.get("namespace");
+            JsonElement value = capability.get("value");
+            if (namespace == null || !namespace.isJsonPrimitive() || value == null || value.isJsonNull()) {
+                continue;
+            }
+            switch (namespace.getAsString()) {
+                case "Alexa.PowerController":
+                    if (value.isJsonPrimitive()) {
+                        powerState = value.getAsString();
+                    }
+                    break;
+                case "Alexa.BrightnessController":
+                    if (value.isJsonPrimitive()) {
+                        brightness = Math.round(value.getAsFloat());
+                    }
+                    break;
+                case "Alexa.ColorPropertiesController":
+                    if (value.isJsonObject()) {
+                        JsonElement name = value.getAsJsonObject().get("name");
+                        if (name != null && name.isJsonPrimitive()) {
+                            color = name.getAsString();
+                        }
+                    }
+                    break;
+                case "Alexa.ColorTemperatureController":
+                    if (value.isJsonPrimitive()) {
+                        colorTemperature = value.getAsInt();
+                    }
+                    break;
+                case "Alexa.EndpointHealth":
+                    JsonElement connectivity = value.isJsonObject() ? value.getAsJsonObject().get("value") : value;
+                    if (connectivity != null && connectivity.isJsonPrimitive()) {
+                        reachable = "OK".equals(connectivity.getAsString());
+                    }
+                    break;
+            }
+        }
+        return new ApplianceStateSnapshot(powerState, brightness, color, colorTemperature, reachable, timestamp);
+    }
+
+    /**
+     * Combines the states of the lights of a light group. The group is on if one light is on and has the brightness of
+     * the brightest light. Groups have no common color.
+     */
+    public static @Nullable ApplianceStateSnapshot combine(Collection<ApplianceStateSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        String powerState = "OFF";
+        Integer brightness = null;
+        Boolean reachable = null;
+        long timestamp = 0;
+        for (ApplianceStateSnapshot snapshot : snapshots) {
+            if ("ON".equals(snapshot.powerState)) {
+                powerState = "ON";
+            }
+            Integer lightBrightness = snapshot.brightness;
+            if (lightBrightness != null && (brightness == null || lightBrightness > brightness)) {
+                brightness = lightBrightness;
+            }
+            Boolean lightReachable = snapshot.reachable;
+            if (lightReachable != null) {
+                reachable = lightReachable || Boolean.TRUE.equals(reachable);
+            }
+            timestamp = Math.max(timestamp, snapshot.timestamp);
+        }
+        return new ApplianceStateSnapshot(powerState, brightness, null, null, reachable, timestamp);
+    }
+
+    /**
+     * Compares the state with another snapshot, ignoring the time stamp
+     */
+    public boolean hasSameState(@Nullable ApplianceStateSnapshot other) {
+        return other != null && Objects.equals(powerState, other.powerState)
+                && Objects.equals(brightness, other.brightness) && Objects.equals(color, other.color)
+                && Objects.equals(colorTemperature, other.colorTemperature)
+                && Objects.equals(reachable, other.reachable);
+    }
+
+    public @Nullable String getPowerState() {
+        return powerState;
+    }
+
+    public @Nullable Integer getBrightness() {
+        return brightness;
+    }
+
+    public @Nullable String getColor() {
+        return color;
+    }
+
+    public @Nullable Integer getColorTemperature() {
+        return colorTemperature;
+    }
+
+    public @Nullable Boolean isReachable() {
+        return reachable;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -40,7 +39,6 @@ import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonDevices.Device;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMusicProvider;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonNotificationSound;
-import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlaylists.PlayList;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -138,24 +136,17 @@ public class AmazonEchoDynamicStateDescriptionProvider implements DynamicStateDe
                 return originalStateDescription;
             }
 
-            JsonPlaylists playLists = handler.findPlaylists();
+            List<PlayList> playLists = handler.findPlaylists();
             if (playLists == null) {
                 return originalStateDescription;
             }
 
             ArrayList<StateOption> options = new ArrayList<>();
             options.add(new StateOption("", ""));
-            @Nullable
-            Map<String, @Nullable PlayList @Nullable []> playlistMap = playLists.playlists;
-            if (playlistMap != null) {
-                for (PlayList[] innerLists : playlistMap.values()) {
-                    if (innerLists != null && innerLists.length > 0) {
-                        PlayList playList = innerLists[0];
-                        if (playList.playlistId != null && playList.title != null) {
-                            options.add(new StateOption(playList.playlistId,
-                                    String.format("%s (%d)", playList.title, playList.trackCount)));
-                        }
-                    }
+            for (PlayList playList : playLists) {
+                if (playList.playlistId != null && playList.title != null) {
+                    options.add(new StateOption(playList.playlistId,
+                            String.format("%s (%d)", playList.title, playList.trackCount)));
                 }
             }
             StateDescription result = new StateDescription(originalStateDescription.getMinimum(),
@@ -168,7 +159,7 @@ public class AmazonEchoDynamicStateDescriptionProvider implements DynamicStateDe
                 return originalStateDescription;
             }
 
-            JsonNotificationSound[] notificationSounds = handler.findAlarmSounds();
+            List<JsonNotificationSound> notificationSounds = handler.findAlarmSounds();
             if (notificationSounds == null) {
                 return originalStateDescription;
             }
@@ -177,7 +168,7 @@ public class AmazonEchoDynamicStateDescriptionProvider implements DynamicStateDe
             options.add(new StateOption("", ""));
 
             for (JsonNotificationSound notificationSound : notificationSounds) {
-                if (notificationSound != null && notificationSound.folder == null
+                if (notificationSound.folder == null
                         && notificationSound.providerId != null && notificationSound.id != null
                         && notificationSound.displayName != null) {
                     String providerSoundId = notificationSound.providerId + ":" + notificationSound.id;
@@ -197,7 +188,7 @@ public class AmazonEchoDynamicStateDescriptionProvider implements DynamicStateDe
             if (accountHandler == null) {
                 return originalStateDescription;
             }
-            List<Device> devices = accountHandler.getLastKnownDevices();
+            List<Device> devices = accountHandler.getSnapshot().getDevices();
             if (devices.size() == 0) {
                 return originalStateDescription;
             }
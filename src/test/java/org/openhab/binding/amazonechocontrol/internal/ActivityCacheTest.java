@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities.Activity;
+
+/**
+ * Tests the {@link ActivityCache} with an activity source which returns the activities of the test
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ActivityCacheTest {
+
+    private static final long WINDOW = 100;
+    private static final long TIME_TO_LIVE = 60000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // the start times of the requests of the activity list
+    private final List<@Nullable Long> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> resolved = Collections.synchronizedList(new ArrayList<>());
+    // the activities which are returned for a start time, all activities for other start times
+    private final List<Activity> activities = new ArrayList<>();
+    private @Nullable Long pageStartTime;
+    private List<Activity> page = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private ActivityCache create(long timeToLive) {
+        return new ActivityCache(scheduler, (number, startTime) -> {
+            requests.add(startTime);
+            List<Activity> result = startTime != null && startTime.equals(pageStartTime) ? page : activities;
+            return result.toArray(new Activity[0]);
+        }, WINDOW, timeToLive);
+    }
+
+    private static Activity activity(String id) {
+        Activity activity = new JsonActivities().new Activity();
+        activity.id = id;
+        return activity;
+    }
+
+    /**
+     * Requests the activity, the resolved activities are recorded with the information whether they were resolved
+     * on the calling thread
+     */
+    private void request(ActivityCache cache, String id, @Nullable Long timestamp) {
+        Thread caller = Thread.currentThread();
+        cache.request(id, timestamp, activity -> resolved.add(activity.id + "@" + (Thread.currentThread() == caller)));
+    }
+
+    @Test
+    public void testRequestsWithinWindowAreBatched() throws InterruptedException {
+        activities.addAll(Arrays.asList(activity("u#1"), activity("u#2"), activity("u#3")));
+        ActivityCache cache = create(TIME_TO_LIVE);
+        request(cache, "u#1", 1000L);
+        request(cache, "u#2", 3000L);
+        request(cache, "u#1", 1000L);
+        waitForResolved(3);
+
+        assertEquals(Arrays.asList(3000L), requests);
+        assertEquals(Arrays.asList("u#1@false", "u#1@false", "u#2@false"), sorted(resolved));
+    }
+
+    @Test
+    public void testCachedActivitiesAreResolvedWithoutRequest() throws InterruptedException {
+        activities.add(activity("u#1"));
+        ActivityCache cache = create(TIME_TO_LIVE);
+        request(cache, "u#1", 1000L);
+        waitForResolved(1);
+        request(cache, "u#1", 1000L);
+
+        // the second one is resolved immediately on the calling thread
+        assertEquals(Arrays.asList("u#1@false", "u#1@true"), resolved);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testExpiredActivitiesAreRequestedAgain() throws InterruptedException {
+        activities.add(activity("u#1"));
+        ActivityCache cache = create(WINDOW);
+        request(cache, "u#1", 1000L);
+        waitForResolved(1);
+        Thread.sleep(2 * WINDOW);
+        request(cache, "u#1", 1000L);
+        waitForResolved(2);
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void testActivityOutsideTheBatchPageIsRequestedWithItsOwnTime() throws InterruptedException {
+        // the page of the newest event does not contain the older event
+        activities.add(activity("u#1"));
+        pageStartTime = 5000L;
+        page.add(activity("u#2"));
+        ActivityCache cache = create(TIME_TO_LIVE);
+        request(cache, "u#1", 1000L);
+        request(cache, "u#2", 5000L);
+        waitForResolved(2);
+
+        assertEquals(Arrays.asList(5000L, 1000L), requests);
+        assertEquals(Arrays.asList("u#1@false", "u#2@false"), sorted(resolved));
+    }
+
+    @Test
+    public void testUnknownActivityIsNotResolved() throws InterruptedException {
+        ActivityCache cache = create(TIME_TO_LIVE);
+        request(cache, "u#1", 1000L);
+        Thread.sleep(3 * WINDOW);
+
+        assertEquals(1, requests.size());
+        assertEquals(Collections.emptyList(), resolved);
+    }
+
+    @Test
+    public void testClearDiscardsCachedActivities() throws InterruptedException {
+        activities.add(activity("u#1"));
+        ActivityCache cache = create(TIME_TO_LIVE);
+        request(cache, "u#1", 1000L);
+        waitForResolved(1);
+        cache.clear();
+        request(cache, "u#1", 1000L);
+        waitForResolved(2);
+
+        assertEquals(2, requests.size());
+    }
+
+    private void waitForResolved(int expected) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (resolved.size() < expected) {
+            assertTrue("activities not resolved: " + resolved, System.currentTimeMillis() < end);
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> result = new ArrayList<>(values);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonPlayerState.PlayerInfo;
+
+/**
+ * Tests the mapping of the media sessions of an account to the devices by {@link Connection#getMediaSessions()}
+ * with recorded responses.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ConnectionMediaSessionsTest {
+
+    private final List<String> requestedUrls = new ArrayList<>();
+    private String response = "";
+    private @Nullable Connection connection;
+
+    /**
+     * A connection which returns the response of the test without a network access
+     */
+    private class RecordedConnection extends HttpsURLConnection {
+
+        RecordedConnection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public String getCipherSuite() {
+            return "";
+        }
+
+        @Override
+        public Certificate @Nullable [] getLocalCertificates() {
+            return null;
+        }
+
+        @Override
+        public Certificate @Nullable [] getServerCertificates() {
+            return null;
+        }
+
+        @Override
+        public int getResponseCode() {
+            return 200;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public @Nullable String getHeaderField(@Nullable String name) {
+            return null;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/json; charset=UTF-8";
+        }
+
+        @Override
+        public @Nullable String getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        connection = new Connection(null, new IHttpTransport() {
+            @Override
+            public HttpsURLConnection openConnection(String url) throws IOException {
+                requestedUrls.add(url);
+                return new RecordedConnection(new URL(url));
+            }
+
+            @Override
+            public void releaseConnection(@Nullable HttpsURLConnection connection) {
+            }
+
+            @Override
+            public void discardConnection(@Nullable HttpsURLConnection connection) {
+            }
+        });
+    }
+
+    @Test
+    public void testMapping() throws IOException, URISyntaxException {
+        response = readResource("media-sessions.json");
+        Map<String, PlayerInfo> sessions = getMediaSessions();
+
+        assertNotNull(sessions);
+        assertEquals(3, sessions.size());
+        assertEquals(1, requestedUrls.size());
+        assertTrue(requestedUrls.get(0).endsWith("/api/np/list-media-sessions"));
+
+        // both devices of the cluster share the player info of the session
+        PlayerInfo kitchen = sessions.get("G090LF1172340AWC");
+        assertNotNull(kitchen);
+        assertSame(kitchen, sessions.get("G0911W0793360TLG"));
+        assertEquals("PLAYING", kitchen.state);
+        assertEquals("Get Lucky", kitchen.infoText.title);
+        assertEquals(Long.valueOf(42), kitchen.progress.mediaProgress);
+
+        PlayerInfo bedroom = sessions.get("G2A0V7048174001A");
+        assertNotNull(bedroom);
+        assertEquals("PAUSED", bedroom.state);
+        assertEquals("TuneIn", bedroom.provider.providerName);
+    }
+
+    @Test
+    public void testMissingDevices() throws IOException, URISyntaxException {
+        response = readResource("media-sessions.json");
+        Map<String, PlayerInfo> sessions = getMediaSessions();
+
+        assertNotNull(sessions);
+        // the session without player info is skipped, the player state of the device must be requested separately
+        assertNull(sessions.get("G000RA1104140C2F"));
+        // devices without a session are not in the result
+        assertNull(sessions.get("G0000000000000XX"));
+    }
+
+    @Test
+    public void testFallbackForUnusableResponses() throws IOException, URISyntaxException {
+        for (String unusable : new String[] { "", "{}", "{\"mediaSessionList\":[]}", "{\"mediaSessionList\":null}",
+                "{\"sessions\":[{\"state\":\"PLAYING\"}]}",
+                "{\"mediaSessionList\":[{\"nowPlayingData\":{\"state\":\"PLAYING\"}}]}",
+                "{\"mediaSessionList\":[{\"endpointList\":[{}],\"nowPlayingData\":{\"state\":\"PLAYING\"}}]}" }) {
+            response = unusable;
+            assertNull(unusable, getMediaSessions());
+        }
+    }
+
+    private @Nullable Map<String, PlayerInfo> getMediaSessions() throws IOException, URISyntaxException {
+        Connection connection = this.connection;
+        assertNotNull(connection);
+        return connection.getMediaSessions();
+    }
+
+    private String readResource(String name) throws IOException {
+        try (InputStream input = getClass().getResourceAsStream(name);
+                Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name())) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Tests that the {@link NestedJsonDecoder} decodes the smart home network like the string replacements, which were
+ * used before.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class NestedJsonDecoderTest {
+
+    @Test
+    public void testPhoenixEqualsStringReplacement() throws IOException {
+        String phoenix = readResource("phoenix.json");
+        JsonElement expected = new JsonParser().parse(decodeWithReplace(phoenix));
+        assertEquals(expected, decode(phoenix));
+    }
+
+    @Test
+    public void testPhoenixFromStream() throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("phoenix.json");
+                JsonReader reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            JsonObject applianceDetails = NestedJsonDecoder.decode(reader).getAsJsonObject()
+                    .getAsJsonObject("networkDetail").getAsJsonObject("locationDetails")
+                    .getAsJsonObject("locationDetails").getAsJsonObject("Default_Location")
+                    .getAsJsonObject("amazonBridgeDetails").getAsJsonObject("amazonBridgeDetails")
+                    .getAsJsonObject("LambdaBridge_AAA/SonarCloudService").getAsJsonObject("applianceDetails")
+                    .getAsJsonObject("applianceDetails");
+            assertEquals(3, applianceDetails.size());
+        }
+    }
+
+    @Test
+    public void testEscapedCharactersInEmbeddedJson() {
+        // the string replacements removed the escapes of the quote and broke the document
+        JsonObject decoded = decode("{\"networkDetail\":\"{\\\"friendlyName\\\":\\\"Kid\\\\\\\"s Room\\\"}\"}")
+                .getAsJsonObject();
+        assertEquals("Kid\"s Room", decoded.getAsJsonObject("networkDetail").get("friendlyName").getAsString());
+    }
+
+    @Test
+    public void testTextInBracketsStaysString() {
+        JsonObject decoded = decode("{\"a\":\"{no json}\",\"b\":\"[1, 2\",\"c\":\"[1, 2]\",\"d\":\"{}x\"}")
+                .getAsJsonObject();
+        assertEquals("{no json}", decoded.get("a").getAsString());
+        assertEquals("[1, 2", decoded.get("b").getAsString());
+        assertTrue(decoded.get("c").isJsonArray());
+        assertEquals("{}x", decoded.get("d").getAsString());
+    }
+
+    @Test
+    public void testNestedEmbeddedJson() {
+        JsonObject decoded = decode("{\"a\":\"{\\\"b\\\":\\\"[true,null,1.5]\\\"}\"}").getAsJsonObject();
+        JsonElement b = decoded.getAsJsonObject("a").get("b");
+        assertTrue(b.isJsonArray());
+        assertEquals(3, b.getAsJsonArray().size());
+        assertEquals(1.5, b.getAsJsonArray().get(2).getAsDouble(), 0);
+    }
+
+    private static JsonElement decode(String json) {
+        return NestedJsonDecoder.decode(new JsonReader(new StringReader(json)));
+    }
+
+    /**
+     * The decoding of the smart home network as it was done before the {@link NestedJsonDecoder}
+     */
+    private static String decodeWithReplace(String json) {
+        String result = json.replace("\\", "");
+        result = result.replace("\"{", "{");
+        result = result.replace("}\"", "}");
+        return result;
+    }
+
+    private String readResource(String name) throws IOException {
+        try (InputStream input = getClass().getResourceAsStream(name);
+                Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name())) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
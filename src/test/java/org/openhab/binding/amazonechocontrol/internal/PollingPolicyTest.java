@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PollingPolicy}
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class PollingPolicyTest {
+
+    private static final long FLOOR = 30000;
+    private static final long CEILING = 240000;
+    private static final long ACTIVE_TIME = 60000;
+
+    private final PollingPolicy policy = new PollingPolicy(FLOOR, CEILING, ACTIVE_TIME);
+
+    @Test
+    public void testNewEntityIsDueImmediately() {
+        assertTrue(policy.isPollDue("echo"));
+        policy.polled("echo", false);
+        assertFalse(policy.isPollDue("echo"));
+    }
+
+    @Test
+    public void testIntervalDoublesUpToTheCeiling() {
+        assertEquals(2 * FLOOR, policy.polled("echo", false));
+        assertEquals(4 * FLOOR, policy.polled("echo", false));
+        assertEquals(CEILING, policy.polled("echo", false));
+        assertEquals(CEILING, policy.polled("echo", false));
+    }
+
+    @Test
+    public void testChangeResetsTheInterval() {
+        policy.polled("echo", false);
+        policy.polled("echo", false);
+        assertEquals(FLOOR, policy.polled("echo", true));
+        assertEquals(2 * FLOOR, policy.polled("echo", false));
+    }
+
+    @Test
+    public void testActivityKeepsTheFloor() {
+        policy.polled("echo", false);
+        policy.polled("echo", false);
+        policy.notifyActivity("echo");
+        assertEquals(FLOOR, policy.polled("echo", false));
+        assertEquals(FLOOR, policy.polled("echo", false));
+    }
+
+    @Test
+    public void testPlayingKeepsTheFloor() {
+        policy.polled("echo", false);
+        policy.setPlaying("echo", true);
+        assertEquals(FLOOR, policy.polled("echo", false));
+        assertEquals(FLOOR, policy.polled("echo", false));
+        policy.setPlaying("echo", false);
+        assertEquals(2 * FLOOR, policy.polled("echo", false));
+    }
+
+    @Test
+    public void testPlayingBacksOffWithoutPollWhilePlaying() {
+        policy.setPollWhilePlaying(false);
+        policy.setPlaying("echo", true);
+        assertEquals(2 * FLOOR, policy.polled("echo", false));
+        assertEquals(4 * FLOOR, policy.polled("echo", false));
+        // a push event still resets the interval
+        policy.notifyActivity("echo");
+        assertEquals(FLOOR, policy.polled("echo", false));
+    }
+
+    @Test
+    public void testPollWhilePlayingOnlyAffectsPlayingEntities() {
+        policy.setPollWhilePlaying(false);
+        policy.setPlaying("playing", true);
+        policy.setPlaying("idle", false);
+        policy.polled("playing", false);
+        policy.polled("idle", false);
+        policy.polled("playing", false);
+        policy.polled("idle", false);
+
+        policy.setPollWhilePlaying(true);
+        assertEquals(FLOOR, policy.polled("playing", false));
+        assertEquals(CEILING, policy.polled("idle", false));
+    }
+
+    @Test
+    public void testEntitiesAreIndependent() {
+        policy.polled("a", false);
+        policy.polled("a", false);
+        assertEquals(2 * FLOOR, policy.polled("b", false));
+        policy.remove("a");
+        assertTrue(policy.isPollDue("a"));
+        assertEquals(2 * FLOOR, policy.polled("a", false));
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PushEventCoalescer}. The events are strings "lane:type:value", an empty type means no type.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class PushEventCoalescerTest {
+
+    private static final long WINDOW = 100;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private @Nullable PushEventCoalescer<String> coalescer;
+
+    /**
+     * Collects the submitted tasks, they run when the test calls {@link #runAll()}
+     */
+    private static class ManualExecutor implements Executor {
+        final ArrayDeque<Runnable> submitted = new ArrayDeque<>();
+        boolean reject;
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            if (reject) {
+                throw new RejectedExecutionException();
+            }
+            submitted.add(command);
+        }
+
+        void runAll() {
+            Runnable next;
+            while ((next = poll()) != null) {
+                next.run();
+            }
+        }
+
+        private synchronized @Nullable Runnable poll() {
+            return submitted.poll();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        PushEventCoalescer<String> coalescer = this.coalescer;
+        if (coalescer != null) {
+            coalescer.close();
+        }
+        scheduler.shutdownNow();
+    }
+
+    private PushEventCoalescer<String> create(Executor executor, long window, int maxPending) {
+        PushEventCoalescer<String> coalescer = new PushEventCoalescer<>(scheduler, executor, 2, window, maxPending,
+                event -> event.split(":")[0], event -> {
+                    String type = event.split(":")[1];
+                    return type.isEmpty() ? null : type;
+                }, delivered::add);
+        this.coalescer = coalescer;
+        return coalescer;
+    }
+
+    @Test
+    public void testEventsWithoutTypeAreDeliveredImmediately() {
+        PushEventCoalescer<String> coalescer = create(Runnable::run, WINDOW, 10);
+        coalescer.submit("a::1");
+        coalescer.submit("a::2");
+        assertEquals(Arrays.asList("a::1", "a::2"), delivered);
+    }
+
+    @Test
+    public void testEventsOfSameLaneAndTypeAreMerged() throws InterruptedException {
+        PushEventCoalescer<String> coalescer = create(Runnable::run, WINDOW, 10);
+        coalescer.submit("a:volume:1");
+        coalescer.submit("a:volume:2");
+        coalescer.submit("b:volume:1");
+        coalescer.submit("a:volume:3");
+        waitForDelivered(2);
+
+        assertEquals(Arrays.asList("a:volume:3", "b:volume:1"), delivered);
+        Map<String, Long> statistics = statistics(coalescer);
+        assertEquals(Long.valueOf(4), statistics.get("Push events received"));
+        assertEquals(Long.valueOf(2), statistics.get("Push events merged"));
+        assertEquals(Long.valueOf(2), statistics.get("Push events delivered"));
+    }
+
+    @Test
+    public void testMergedEventTakesThePlaceOfTheFirst() throws InterruptedException {
+        PushEventCoalescer<String> coalescer = create(Runnable::run, WINDOW, 10);
+        coalescer.submit("a:volume:1");
+        coalescer.submit("a:player:1");
+        coalescer.submit("a:volume:2");
+        waitForDelivered(2);
+
+        assertEquals(Arrays.asList("a:volume:2", "a:player:1"), delivered);
+    }
+
+    @Test
+    public void testEventAfterWindowIsDeliveredAgain() throws InterruptedException {
+        PushEventCoalescer<String> coalescer = create(Runnable::run, 0, 10);
+        coalescer.submit("a:volume:1");
+        waitForDelivered(1);
+        coalescer.submit("a:volume:2");
+        waitForDelivered(2);
+
+        assertEquals(Arrays.asList("a:volume:1", "a:volume:2"), delivered);
+    }
+
+    @Test
+    public void testEventsAreDroppedIfTooManyArePending() {
+        ManualExecutor executor = new ManualExecutor();
+        PushEventCoalescer<String> coalescer = create(executor, WINDOW, 2);
+        coalescer.submit("a::1");
+        coalescer.submit("b::1");
+        coalescer.submit("c::1");
+        executor.runAll();
+        assertEquals(Arrays.asList("a::1", "b::1"), delivered);
+        assertEquals(Long.valueOf(1), statistics(coalescer).get("Push events dropped (queue full or rejected)"));
+
+        // the delivered events have released their slots
+        coalescer.submit("c::2");
+        coalescer.submit("d::2");
+        executor.runAll();
+        assertEquals(Arrays.asList("a::1", "b::1", "c::2", "d::2"), delivered);
+    }
+
+    @Test
+    public void testRejectedEventsReleaseTheirSlots() {
+        ManualExecutor executor = new ManualExecutor();
+        PushEventCoalescer<String> coalescer = create(executor, WINDOW, 2);
+        executor.reject = true;
+        for (int i = 0; i < 5; i++) {
+            coalescer.submit("a::" + i);
+        }
+        assertEquals(Long.valueOf(5), statistics(coalescer).get("Push events dropped (queue full or rejected)"));
+
+        executor.reject = false;
+        coalescer.submit("a::5");
+        coalescer.submit("b::5");
+        executor.runAll();
+        assertEquals(Arrays.asList("a::5", "b::5"), delivered);
+    }
+
+    @Test
+    public void testCloseDiscardsPendingEvents() throws InterruptedException {
+        PushEventCoalescer<String> coalescer = create(Runnable::run, WINDOW, 10);
+        coalescer.submit("a:volume:1");
+        coalescer.close();
+        coalescer.submit("a::2");
+        Thread.sleep(2 * WINDOW);
+
+        assertEquals(Collections.emptyList(), delivered);
+    }
+
+    private void waitForDelivered(int expected) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (delivered.size() < expected) {
+            assertTrue("events not delivered: " + delivered, System.currentTimeMillis() < end);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Map<String, Long> statistics(PushEventCoalescer<String> coalescer) {
+        Map<String, Long> statistics = new HashMap<>();
+        coalescer.appendStatistics(statistics);
+        return statistics;
+    }
+}
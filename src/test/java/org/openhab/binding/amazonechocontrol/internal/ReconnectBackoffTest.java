@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ReconnectBackoff}
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class ReconnectBackoffTest {
+
+    private static final long FLOOR = 1000;
+    private static final long CEILING = 300000;
+
+    private final ReconnectBackoff backoff = new ReconnectBackoff(FLOOR, CEILING);
+
+    @Test
+    public void testDelaysDoubleUpToTheCeiling() {
+        assertEquals(0, backoff.nextDelay());
+        long expected = FLOOR;
+        for (int attempt = 1; attempt < 100; attempt++) {
+            assertDelay(expected, backoff.nextDelay());
+            expected = Math.min(CEILING, expected * 2);
+        }
+        assertDelay(CEILING, backoff.nextDelay());
+    }
+
+    @Test
+    public void testConnectResetsTheDelay() {
+        backoff.nextDelay();
+        backoff.nextDelay();
+        backoff.nextDelay();
+        backoff.connected();
+        backoff.disconnected();
+
+        assertEquals(0, backoff.nextDelay());
+        assertDelay(FLOOR, backoff.nextDelay());
+    }
+
+    @Test
+    public void testConnectAndDisconnectAreCountedOnce() {
+        // the initial connect is no reconnect
+        assertFalse(backoff.connected());
+        assertFalse(backoff.connected());
+        assertTrue(backoff.disconnected());
+        assertFalse(backoff.disconnected());
+        assertTrue(backoff.connected());
+        assertFalse(backoff.connected());
+
+        Map<String, Long> statistics = new HashMap<>();
+        backoff.appendStatistics(statistics);
+        assertEquals(Long.valueOf(1), statistics.get("Web socket disconnects"));
+        assertEquals(Long.valueOf(1), statistics.get("Web socket reconnects"));
+        assertEquals(Long.valueOf(0), statistics.get("Web socket disconnected time (s)"));
+    }
+
+    @Test
+    public void testDisconnectBeforeFirstConnectIsIgnored() {
+        assertFalse(backoff.disconnected());
+
+        Map<String, Long> statistics = new HashMap<>();
+        backoff.appendStatistics(statistics);
+        assertEquals(Long.valueOf(0), statistics.get("Web socket disconnects"));
+    }
+
+    /**
+     * The jitter shortens the delay by up to a half
+     */
+    private static void assertDelay(long expected, long delay) {
+        assertTrue("delay " + delay + " shorter than half of " + expected, delay >= expected / 2);
+        assertTrue("delay " + delay + " longer than " + expected, delay <= expected);
+    }
+}
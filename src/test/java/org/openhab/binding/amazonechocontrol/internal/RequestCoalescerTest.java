@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link RequestCoalescer}
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 4;
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a request which blocks until the test releases it and returns the given result
+     */
+    private Future<Object> startBlockingRequest(String key, CountDownLatch started, Object result) {
+        return executor.submit(() -> coalescer.execute(key, () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        }));
+    }
+
+    /**
+     * Starts a request which must not be executed, because it waits for the running request with the same key
+     */
+    private Future<Object> startWaitingRequest(String key) {
+        return executor.submit(() -> coalescer.execute(key, () -> {
+            executions.incrementAndGet();
+            return new Object();
+        }));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Object result = new Object();
+        Future<Object> first = startBlockingRequest("key", started, result);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<Object>> waiting = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            waiting.add(startWaitingRequest("key"));
+        }
+        waitForSavedRequests(CALLERS);
+        release.countDown();
+
+        assertSame(result, first.get(5, TimeUnit.SECONDS));
+        for (Future<Object> future : waiting) {
+            assertSame(result, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, coalescer.getExecutedRequests());
+        assertEquals(CALLERS, coalescer.getSavedRequests());
+    }
+
+    @Test
+    public void testDifferentKeysAreNotCombined() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        Future<Object> first = startBlockingRequest("a", started, "a");
+        Future<Object> second = startBlockingRequest("b", started, "b");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertEquals("a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("b", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, executions.get());
+        assertEquals(0, coalescer.getSavedRequests());
+    }
+
+    @Test
+    public void testFinishedRequestIsExecutedAgain() throws IOException, URISyntaxException {
+        assertEquals("first", coalescer.execute("key", () -> "first"));
+        assertEquals("second", coalescer.execute("key", () -> "second"));
+        assertEquals(2, coalescer.getExecutedRequests());
+    }
+
+    @Test
+    public void testExceptionIsShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> first = executor.submit(() -> coalescer.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new IOException("failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> waiting = startWaitingRequest("key");
+        waitForSavedRequests(1);
+        release.countDown();
+
+        assertCause(IOException.class, first);
+        assertCause(IOException.class, waiting);
+        assertEquals(0, executions.get());
+
+        // the failed request is not kept
+        assertEquals("next", coalescer.execute("key", () -> "next"));
+    }
+
+    @Test
+    public void testErrorReleasesWaitingCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> first = executor.submit(() -> coalescer.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new AssertionError("error");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> waiting = startWaitingRequest("key");
+        waitForSavedRequests(1);
+        release.countDown();
+
+        assertCause(AssertionError.class, first);
+        // errors are wrapped for the waiting callers
+        assertCause(IOException.class, waiting);
+    }
+
+    private void waitForSavedRequests(long expected) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (coalescer.getSavedRequests() < expected) {
+            assertTrue("callers did not join the running request", System.currentTimeMillis() < end);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, Future<Object> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected " + expected.getName());
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), expected.isInstance(e.getCause()));
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
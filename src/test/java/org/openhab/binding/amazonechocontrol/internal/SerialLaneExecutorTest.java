@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SerialLaneExecutor} with an executor which runs the submitted tasks on request of the test
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class SerialLaneExecutorTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final List<String> executed = new ArrayList<>();
+    private final List<Runnable> discarded = new ArrayList<>();
+
+    /**
+     * Collects the submitted tasks, they run when the test calls {@link #runNext()}
+     */
+    private static class ManualExecutor implements Executor {
+        final ArrayDeque<Runnable> submitted = new ArrayDeque<>();
+        int rejections;
+
+        @Override
+        public void execute(Runnable command) {
+            if (rejections > 0) {
+                rejections--;
+                throw new RejectedExecutionException();
+            }
+            submitted.add(command);
+        }
+
+        void runNext() {
+            Runnable next = submitted.poll();
+            assertNotNull("no task submitted", next);
+            next.run();
+        }
+
+        void runAll() {
+            while (!submitted.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+
+    private SerialLaneExecutor createLanes(int maxParallelLanes) {
+        return new SerialLaneExecutor(executor, maxParallelLanes, discarded::add);
+    }
+
+    private Runnable task(String name) {
+        return () -> executed.add(name);
+    }
+
+    @Test
+    public void testTasksOfOneLaneRunInOrderOneAtATime() {
+        SerialLaneExecutor lanes = createLanes(4);
+        lanes.execute("a", task("a1"));
+        lanes.execute("a", task("a2"));
+        lanes.execute("a", task("a3"));
+
+        // only one task of the lane occupies the executor
+        assertEquals(1, executor.submitted.size());
+        executor.runNext();
+        assertEquals(1, executor.submitted.size());
+        executor.runAll();
+        assertEquals(Arrays.asList("a1", "a2", "a3"), executed);
+    }
+
+    @Test
+    public void testLanesRunInParallel() {
+        SerialLaneExecutor lanes = createLanes(4);
+        lanes.execute("a", task("a1"));
+        lanes.execute("b", task("b1"));
+        lanes.execute("a", task("a2"));
+
+        assertEquals(2, executor.submitted.size());
+        executor.runAll();
+        assertEquals(Arrays.asList("a1", "b1", "a2"), executed);
+    }
+
+    @Test
+    public void testMaxParallelLanes() {
+        SerialLaneExecutor lanes = createLanes(2);
+        lanes.execute("a", task("a1"));
+        lanes.execute("a", task("a2"));
+        lanes.execute("b", task("b1"));
+        lanes.execute("c", task("c1"));
+
+        assertEquals(2, executor.submitted.size());
+        executor.runNext();
+        // the waiting lane c takes its turn before the next task of lane a
+        executor.runNext();
+        executor.runAll();
+        assertEquals(Arrays.asList("a1", "b1", "c1", "a2"), executed);
+        assertEquals(0, executor.submitted.size());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotBlockTheLane() {
+        SerialLaneExecutor lanes = createLanes(1);
+        lanes.execute("a", () -> {
+            throw new IllegalStateException("test");
+        });
+        lanes.execute("a", task("a2"));
+        lanes.execute("b", task("b1"));
+
+        executor.runAll();
+        assertEquals(Arrays.asList("b1", "a2"), executed);
+    }
+
+    @Test
+    public void testRejectedTasksAreDiscarded() {
+        SerialLaneExecutor lanes = createLanes(1);
+        executor.rejections = 1;
+        Runnable a1 = task("a1");
+        lanes.execute("a", a1);
+
+        assertEquals(Arrays.asList(a1), discarded);
+        assertEquals(0, executor.submitted.size());
+
+        // the slot of the rejected lane is free again
+        lanes.execute("b", task("b1"));
+        executor.runAll();
+        assertEquals(Arrays.asList("b1"), executed);
+    }
+
+    @Test
+    public void testRejectedLanePassesItsSlotToWaitingLanes() {
+        SerialLaneExecutor lanes = createLanes(1);
+        Runnable b1 = task("b1");
+        lanes.execute("a", task("a1"));
+        lanes.execute("b", b1);
+        lanes.execute("a", task("a2"));
+
+        // lane b gets the slot after a1, but is rejected, the slot must go on to lane a
+        executor.rejections = 1;
+        executor.runNext();
+        assertEquals(Arrays.asList(b1), discarded);
+        executor.runAll();
+        assertEquals(Arrays.asList("a1", "a2"), executed);
+
+        lanes.execute("c", task("c1"));
+        executor.runAll();
+        assertEquals(Arrays.asList("a1", "a2", "c1"), executed);
+    }
+}
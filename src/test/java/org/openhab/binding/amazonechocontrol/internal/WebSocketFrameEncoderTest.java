@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link WebSocketFrameEncoder} creates the same frames as the string based encoding, which was used
+ * before the templates.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class WebSocketFrameEncoderTest {
+
+    private static final long[] MESSAGE_IDS = { 0, 1, 0x0e414e45L, 0x7FFFFFFFL, 0xFFFFFFFFL, 0x1FFFFFFFFL };
+    private static final long[] TIMES = { 0, 1546300800000L, 0x00000164d106ce6bL, Long.MAX_VALUE };
+    private static final UUID[] UUIDS = { UUID.fromString("ff1c4525-c036-4942-bf6c-a098755ac82f"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff") };
+
+    private final WebSocketFrameEncoder encoder = new WebSocketFrameEncoder();
+
+    @Test
+    public void testHandshake() {
+        for (long messageId : MESSAGE_IDS) {
+            for (UUID uuid : UUIDS) {
+                for (long time : TIMES) {
+                    assertArrayEquals(messageId + " " + uuid + " " + time,
+                            StringEncoder.encodeGWHandshake(messageId, uuid, time),
+                            toArray(encoder.encodeGWHandshake(messageId, uuid, time)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegister() {
+        for (long messageId : MESSAGE_IDS) {
+            assertArrayEquals(Long.toString(messageId), StringEncoder.encodeGWRegister(messageId),
+                    toArray(encoder.encodeGWRegister(messageId)));
+        }
+    }
+
+    @Test
+    public void testPing() {
+        for (long messageId : MESSAGE_IDS) {
+            for (long time : TIMES) {
+                assertArrayEquals(messageId + " " + time, StringEncoder.encodePing(messageId, time),
+                        toArray(encoder.encodePing(messageId, time)));
+            }
+        }
+    }
+
+    @Test
+    public void testKnownHandshake() {
+        // recorded from the Alexa web site
+        String expected = "MSG 0x00000361 0x0e414e45 f 0x00000001 0xd7c62f29 0x0000009b INI 0x00000003 1.0 "
+                + "0x00000024 ff1c4525-c036-4942-bf6c-a098755ac82f 0x00000164d106ce6b END FABE";
+        ByteBuffer frame = encoder.encodeGWHandshake(0x0e414e45L, UUIDS[0], 0x00000164d106ce6bL);
+        assertEquals(expected, new String(toArray(frame), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testFramesDoNotInfluenceEachOther() {
+        byte[] register = toArray(encoder.encodeGWRegister(5));
+        encoder.encodeGWHandshake(6, UUIDS[2], Long.MAX_VALUE);
+        encoder.encodePing(7, Long.MAX_VALUE);
+        assertArrayEquals(register, toArray(encoder.encodeGWRegister(5)));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * The string based encoding of the frames as it was used before the {@link WebSocketFrameEncoder}, with the
+     * message id, the uuid and the time as parameters
+     */
+    private static class StringEncoder {
+
+        static String encodeNumber(long val) {
+            return encodeNumber(val, 8);
+        }
+
+        static String encodeNumber(long val, int len) {
+            String str = Long.toHexString(val);
+            if (str.length() > len) {
+                str = str.substring(str.length() - len);
+            }
+            while (str.length() < len) {
+                str = '0' + str;
+            }
+            return "0x" + str;
+        }
+
+        static long computeBits(long input, long len) {
+            long lenCounter = len;
+            long value;
+            for (value = toUnsignedInt(input); 0 != lenCounter && 0 != value;) {
+                value = (long) Math.floor(value / 2);
+                lenCounter--;
+            }
+            return value;
+        }
+
+        static long toUnsignedInt(long value) {
+            long result = value;
+            if (0 > value) {
+                result = 4294967295L + value + 1;
+            }
+            return result;
+        }
+
+        static int computeChecksum(byte[] data, int exclusionStart, int exclusionEnd) {
+            if (exclusionEnd < exclusionStart) {
+                return 0;
+            }
+            long overflow;
+            long sum;
+            int index;
+            for (overflow = 0, sum = 0, index = 0; index < data.length; index++) {
+                if (index != exclusionStart) {
+                    sum += toUnsignedInt((data[index] & 0xFF) << ((index & 3 ^ 3) << 3));
+                    overflow += computeBits(sum, 32);
+                    sum = toUnsignedInt((int) sum & (int) 4294967295L);
+                } else {
+                    index = exclusionEnd - 1;
+                }
+            }
+            while (overflow != 0) {
+                sum += overflow;
+                overflow = computeBits(sum, 32);
+                sum = (int) sum & (int) 4294967295L;
+            }
+            long value = toUnsignedInt(sum);
+            return (int) value;
+        }
+
+        static byte[] encodeGWHandshake(long messageId, UUID uuid, long time) {
+            String msg = "MSG 0x00000361 ";
+            msg += encodeNumber(messageId) + " f 0x00000001 ";
+            int checkSumStart = msg.length();
+            msg += "0x00000000 ";
+            int checkSumEnd = msg.length();
+            msg += "0x0000009b ";
+            msg += "INI 0x00000003 1.0 0x00000024 ";
+            msg += uuid.toString();
+            msg += ' ';
+            msg += encodeNumber(time, 16);
+            msg += " END FABE";
+            byte[] completeBuffer = msg.getBytes(StandardCharsets.US_ASCII);
+
+            int checksum = computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
+            byte[] checksumBuf = encodeNumber(checksum).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
+            return completeBuffer;
+        }
+
+        static byte[] encodeGWRegister(long messageId) {
+            String msg = "MSG 0x00000362 ";
+            msg += encodeNumber(messageId) + " f 0x00000001 ";
+            int checkSumStart = msg.length();
+            msg += "0x00000000 ";
+            int checkSumEnd = msg.length();
+            msg += "0x00000109 ";
+            msg += "GWM MSG 0x0000b479 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 "
+                    + "0x00000041 urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService "
+                    + "{\"command\":\"REGISTER_CONNECTION\"}FABE";
+            byte[] completeBuffer = msg.getBytes(StandardCharsets.US_ASCII);
+
+            int checksum = computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
+            byte[] checksumBuf = encodeNumber(checksum).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
+            return completeBuffer;
+        }
+
+        static void encode(byte[] data, long b, int offset, int len) {
+            for (int index = 0; index < len; index++) {
+                data[index + offset] = (byte) (b >> 8 * (len - 1 - index) & 255);
+            }
+        }
+
+        static byte[] encodePing(long messageId, long time) {
+            String msg = "MSG 0x00000065 ";
+            msg += encodeNumber(messageId) + " f 0x00000001 ";
+            int checkSumStart = msg.length();
+            msg += "0x00000000 ";
+            int checkSumEnd = msg.length();
+            msg += "0x00000062 ";
+
+            byte[] completeBuffer = new byte[0x62];
+            byte[] startBuffer = msg.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(startBuffer, 0, completeBuffer, 0, startBuffer.length);
+
+            byte[] header = "PIN".getBytes(StandardCharsets.US_ASCII);
+            byte[] payload = "Regular".getBytes(StandardCharsets.US_ASCII);
+            byte[] bufferPing = new byte[header.length + 4 + 8 + 4 + 2 * payload.length];
+            int idx = 0;
+            System.arraycopy(header, 0, bufferPing, 0, header.length);
+            idx += header.length;
+            encode(bufferPing, 0, idx, 4);
+            idx += 4;
+            encode(bufferPing, time, idx, 8);
+            idx += 8;
+            encode(bufferPing, payload.length, idx, 4);
+            idx += 4;
+            for (int q = 0; q < payload.length; q++) {
+                bufferPing[idx + q * 2] = (byte) 0;
+                bufferPing[idx + q * 2 + 1] = payload[q];
+            }
+            System.arraycopy(bufferPing, 0, completeBuffer, startBuffer.length, bufferPing.length);
+
+            byte[] buf2End = "FABE".getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(buf2End, 0, completeBuffer, startBuffer.length + bufferPing.length, buf2End.length);
+
+            int checksum = computeChecksum(completeBuffer, checkSumStart, checkSumEnd);
+            byte[] checksumBuf = encodeNumber(checksum).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(checksumBuf, 0, completeBuffer, checkSumStart, checksumBuf.length);
+            return completeBuffer;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link WebSocketFrame} reads the same fields from recorded frames as the string based parser,
+ * which was used before.
+ *
+ * @author Michael Geramb - Initial contribution
+ */
+@NonNullByDefault
+public class WebSocketFrameTest {
+
+    private static final String PUSH_PAYLOAD = "{\"command\":\"PUSH_VOLUME_CHANGE\",\"payload\":\"{"
+            + "\\\"destinationUserId\\\":\\\"A3NSX4MMJVG96V\\\",\\\"dopplerId\\\":{"
+            + "\\\"deviceSerialNumber\\\":\\\"G090LF1172340AWC\\\","
+            + "\\\"deviceType\\\":\\\"A3S5BH2HU6VAYF\\\"},\\\"isMuted\\\":false,\\\"volumeSetting\\\":45}\"}";
+
+    // the frames are ISO 8859-1 strings, so each character is one byte of the frame
+    private static final String PUSH = "MSG 0x00000362 0x0e5a6b0b f 0x00000001 0x3aeb2b4c 0x00000171 GWM MSG "
+            + "0x0000b479 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 0x00000041 "
+            + "urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService " + PUSH_PAYLOAD + "FABE";
+    private static final String PUSH_WITHOUT_PAYLOAD = "MSG 0x00000362 0x0e5a6b0c f 0x00000001 0x0b2a4c1d "
+            + "0x000000c8 GWM MSG 0x0000b479 0x0000003b urn:tcomm-endpoint:device:deviceType:0:deviceSerialNumber:0 "
+            + "0x00000041 urn:tcomm-endpoint:service:serviceName:DeeWebsiteMessagingService FABE";
+    private static final String GWM_OTHER_CHANNEL = "MSG 0x00000362 0x0e5a6b0d f 0x00000001 0x71c2a0e3 0x00000050 "
+            + "GWM MSG 0x0000b47a 0x00000004 test {\"command\":\"OTHER\"}FABE";
+    private static final String PON = "MSG 0x00000065 0x0e414e47 f 0x00000001 0xbc2fbb5f 0x00000062 PON"
+            + "\u0000\u0000\u0000\u0000\u0000\u0000\u0001dÑ\u0006Îk\u0000\u0000\u0000\u0007"
+            + "\u0000R\u0000e\u0000g\u0000u\u0000l\u0000a\u0000rFABE";
+    private static final String ACK = "MSG 0x00000361 0x0e414e45 f 0x00000001 0x1f3a5b7c 0x0000009b ACK 0x00000003 "
+            + "1.0 0x00000024 ff1c4525-c036-4942-bf6c-a098755ac82f 0x00000001 0x00000164d106ce6b "
+            + "0x00000164d106cf2a END FABE";
+    private static final String TUNE = "0x48ee7584 0x0000009c {\"protocolName\":\"A:H\",\"parameters\":"
+            + "{\"AlphaProtocolHandler.receiveWindowSize\":\"16\",\"AlphaProtocolHandler.maxFragmentSize\":\"16000\"}}"
+            + "TUNE";
+
+    private final WebSocketFrame frame = new WebSocketFrame();
+
+    @Test
+    public void testPush() {
+        assertEquivalent(PUSH);
+        frame.parse(bytes(PUSH), 0, PUSH.length());
+        assertTrue(frame.isFabe());
+        assertEquals(WebSocketFrame.GW_CHANNEL, frame.getChannel());
+        assertEquals(WebSocketFrame.DEE_WEBSITE_MESSAGING, frame.getContentChannel());
+        assertEquals(0x0e5a6b0bL, frame.getMessageId());
+        assertEquals(PUSH_PAYLOAD, frame.getPushPayload());
+        assertFalse(frame.isPong());
+    }
+
+    @Test
+    public void testPushWithoutPayload() {
+        assertEquivalent(PUSH_WITHOUT_PAYLOAD);
+        assertNull(frame.parse(bytes(PUSH_WITHOUT_PAYLOAD), 0, PUSH_WITHOUT_PAYLOAD.length()).getPushPayload());
+    }
+
+    @Test
+    public void testGwmOfOtherChannel() {
+        assertEquivalent(GWM_OTHER_CHANNEL);
+        assertNull(frame.parse(bytes(GWM_OTHER_CHANNEL), 0, GWM_OTHER_CHANNEL.length()).getPushPayload());
+    }
+
+    @Test
+    public void testPong() {
+        assertEquivalent(PON);
+        frame.parse(bytes(PON), 0, PON.length());
+        assertTrue(frame.isPong());
+        assertNull(frame.getPushPayload());
+    }
+
+    @Test
+    public void testHandshakeAck() {
+        assertEquivalent(ACK);
+        assertEquals(WebSocketFrame.GW_HANDSHAKE_CHANNEL, frame.parse(bytes(ACK), 0, ACK.length()).getChannel());
+    }
+
+    @Test
+    public void testTune() {
+        assertEquivalent(TUNE);
+        frame.parse(bytes(TUNE), 0, TUNE.length());
+        assertTrue(frame.isTune());
+        assertFalse(frame.isFabe());
+        assertEquals(0x48ee7584L, frame.getChecksum());
+    }
+
+    @Test
+    public void testUnknownService() {
+        assertEquivalent("MSG 0x00000362 0x0e5a6b0b f 0x00000001 XXXX");
+        // the old parser failed on frames shorter than the service, both ignore them
+        frame.parse(bytes("ABC"), 0, 3);
+        assertFalse(frame.isFabe());
+        assertFalse(frame.isTune());
+    }
+
+    @Test
+    public void testFrameInsideLargerBuffer() {
+        byte[] data = bytes("garbage" + PUSH + "garbage");
+        frame.parse(data, 7, PUSH.length());
+        assertEquals(PUSH_PAYLOAD, frame.getPushPayload());
+        assertEquals(0x3aeb2b4cL, frame.getChecksum());
+    }
+
+    @Test
+    public void testTruncatedFrames() {
+        // the old parser reads the unused fields of the handshake ack and the tune content, so they are not compared
+        for (String recorded : new String[] { PUSH, PUSH_WITHOUT_PAYLOAD, GWM_OTHER_CHANNEL, PON }) {
+            String content = recorded.substring(0, recorded.length() - 4);
+            for (int length = 0; length < content.length(); length++) {
+                assertEquivalent(content.substring(0, length) + "FABE");
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidHex() {
+        for (String recorded : new String[] { PUSH, PON, ACK, TUNE }) {
+            // the message id of FABE frames, the checksum of TUNE frames
+            int index = recorded.endsWith("TUNE") ? 5 : 20;
+            String invalid = recorded.substring(0, index) + "g" + recorded.substring(index + 1);
+            assertEquivalent(invalid);
+            try {
+                frame.parse(bytes(invalid), 0, invalid.length());
+                fail("invalid number not detected: " + invalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        // the length of the destination urn
+        String invalid = PUSH.replace("0x0000003b", "0x0000003z");
+        assertEquivalent(invalid);
+    }
+
+    private void assertEquivalent(String recorded) {
+        byte[] data = bytes(recorded);
+        assertEquals(recorded, describeOld(data), describe(data));
+    }
+
+    private static byte[] bytes(String frame) {
+        return frame.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private String describe(byte[] data) {
+        try {
+            frame.parse(data, 0, data.length);
+            String service = frame.isFabe() ? "FABE" : frame.isTune() ? "TUNE" : "";
+            return describe(service, frame.getChannel(), frame.getMessageId(), frame.getSeq(), frame.getChecksum(),
+                    frame.isPong(), frame.getPushPayload());
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+
+    private static String describeOld(byte[] data) {
+        try {
+            OldParser.Message message = OldParser.parseIncomingMessage(data);
+            String service = "FABE".equals(message.service) || "TUNE".equals(message.service) ? message.service : "";
+            boolean pong = message.service.equals("FABE") && message.content.messageType.equals("PON")
+                    && message.content.payloadData.length > 0;
+            String payload = message.content.payload;
+            return describe(service, message.channel, message.messageId, message.seq, message.checksum, pong,
+                    payload == null || payload.isEmpty() ? null : payload);
+        } catch (RuntimeException e) {
+            return "invalid";
+        }
+    }
+
+    private static String describe(String service, long channel, long messageId, long seq, long checksum,
+            boolean pong, @Nullable String payload) {
+        return service + " channel=" + channel + " id=" + messageId + " seq=" + seq + " checksum=" + checksum
+                + " pong=" + pong + " payload=" + payload;
+    }
+
+    /**
+     * The string based parser as it was used before the {@link WebSocketFrame}, without the parsing of the json
+     */
+    private static class OldParser {
+
+        static class Message {
+            String service = "";
+            Content content = new Content();
+            String contentTune = "";
+            String messageType = "";
+            long channel;
+            long checksum;
+            long messageId;
+            String moreFlag = "";
+            long seq;
+        }
+
+        static class Content {
+            String messageType = "";
+            String protocolVersion = "";
+            String connectionUUID = "";
+            long established;
+            long timestampINI;
+            long timestampACK;
+            String subMessageType = "";
+            long channel;
+            String destinationIdentityUrn = "";
+            String deviceIdentityUrn = "";
+            @Nullable
+            String payload;
+            byte[] payloadData = new byte[0];
+        }
+
+        static long readHex(byte[] data, int index, int length) {
+            String str = readString(data, index, length);
+            if (str.startsWith("0x")) {
+                str = str.substring(2);
+            }
+            return Long.parseLong(str, 16);
+        }
+
+        static String readString(byte[] data, int index, int length) {
+            return new String(data, index, length, StandardCharsets.UTF_8);
+        }
+
+        static Message parseIncomingMessage(byte[] data) {
+            int idx = 0;
+            Message message = new Message();
+            message.service = readString(data, data.length - 4, 4);
+
+            if (message.service.equals("TUNE")) {
+                message.checksum = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+                int contentLength = (int) readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+                message.contentTune = readString(data, idx, contentLength - 4 - idx);
+            } else if (message.service.equals("FABE")) {
+                message.messageType = readString(data, idx, 3);
+                idx += 4;
+                message.channel = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+                message.messageId = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+                message.moreFlag = readString(data, idx, 1);
+                idx += 2; // 1 + delimiter;
+                message.seq = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+                message.checksum = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+
+                // currently not used: long contentLength = readHex(data, idx, 10);
+                idx += 11; // 10 + delimiter;
+
+                message.content.messageType = readString(data, idx, 3);
+                idx += 4;
+
+                if (message.channel == 0x361) { // GW_HANDSHAKE_CHANNEL
+                    if (message.content.messageType.equals("ACK")) {
+                        int length = (int) readHex(data, idx, 10);
+                        idx += 11; // 10 + delimiter;
+                        message.content.protocolVersion = readString(data, idx, length);
+                        idx += length + 1;
+                        length = (int) readHex(data, idx, 10);
+                        idx += 11; // 10 + delimiter;
+                        message.content.connectionUUID = readString(data, idx, length);
+                        idx += length + 1;
+                        message.content.established = readHex(data, idx, 10);
+                        idx += 11; // 10 + delimiter;
+                        message.content.timestampINI = readHex(data, idx, 18);
+                        idx += 19; // 18 + delimiter;
+                        message.content.timestampACK = readHex(data, idx, 18);
+                        idx += 19; // 18 + delimiter;
+                    }
+                } else if (message.channel == 0x362) { // GW_CHANNEL
+                    if (message.content.messageType.equals("GWM")) {
+                        message.content.subMessageType = readString(data, idx, 3);
+                        idx += 4;
+                        message.content.channel = readHex(data, idx, 10);
+                        idx += 11; // 10 + delimiter;
+
+                        if (message.content.channel == 0xb479) { // DEE_WEBSITE_MESSAGING
+                            int length = (int) readHex(data, idx, 10);
+                            idx += 11; // 10 + delimiter;
+                            message.content.destinationIdentityUrn = readString(data, idx, length);
+                            idx += length + 1;
+
+                            length = (int) readHex(data, idx, 10);
+                            idx += 11; // 10 + delimiter;
+                            String idData = readString(data, idx, length);
+                            idx += length + 1;
+
+                            String[] idDataElements = idData.split(" ", 2);
+                            message.content.deviceIdentityUrn = idDataElements[0];
+                            String payload = null;
+                            if (idDataElements.length == 2) {
+                                payload = idDataElements[1];
+                            }
+                            if (message.content.payload == null) {
+                                payload = readString(data, idx, data.length - 4 - idx);
+                            }
+                            message.content.payload = payload;
+                        }
+                    }
+                } else if (message.channel == 0x65) { // CHANNEL_FOR_HEARTBEAT
+                    idx -= 1; // no delimiter!
+                    message.content.payloadData = Arrays.copyOfRange(data, idx, data.length - 4);
+                }
+            }
+            return message;
+        }
+    }
+}